@@ -0,0 +1,35 @@
+package performance.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line
+ * options and always adds the GC profiler, so every result reports allocation
+ * rate and bytes per operation next to the score.
+ * <p>
+ * Example: {@code java -jar target/benchmarks.jar SolverBenchmark -p level=EVIL}
+ * </p>
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks selected on the command line.
+     *
+     * @param args JMH command line options.
+     * @throws RunnerException             if a benchmark fails.
+     * @throws CommandLineOptionException if the options are invalid.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
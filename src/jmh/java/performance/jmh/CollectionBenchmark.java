@@ -0,0 +1,371 @@
+package performance.jmh;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sudoku.Mycollection.MyLinkedList;
+import sudoku.Mycollection.MyMap;
+import sudoku.Mycollection.MySet;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.CandidateState;
+
+/**
+ * Compares the {@code sudoku.Mycollection} structures with the JDK
+ * collections and with primitive bit masks, under the access patterns of the
+ * original map-of-sets forward checking solver.
+ * <p>
+ * The patterns are replayed from one forward checking descent on
+ * {@link SudokuConstant#EVIL}, recorded at setup: every placement of the
+ * descent and every value it removed from a peer's domain. Each group of
+ * benchmarks does the same work with a different structure:
+ * </p>
+ * <ul>
+ * <li>lookup: for every placement, fetch the domains of its 20 peers from an
+ * 81-entry map keyed by {@code "row,col"} strings.</li>
+ * <li>domains: fill the 9-value domain of every empty cell, then replay every
+ * removal with its emptiness check.</li>
+ * <li>copy: deep-copy all domains, as the solver did before each trial
+ * value.</li>
+ * <li>list: add every empty cell to a list, then remove the cells in
+ * placement order, checking membership before each removal.</li>
+ * </ul>
+ * <p>
+ * Scores are per replay of the whole pattern. Run through
+ * {@link BenchmarkRunner} to get bytes per operation from the GC profiler.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CollectionBenchmark {
+    private static final int CELLS = 81;
+
+    /** The {@code "row,col"} key of every cell. */
+    private String[] keys;
+
+    /** Initial domain of every cell as a bit mask, 0 for givens. */
+    private int[] initialDomains;
+
+    /** Cells placed by the descent, in order. */
+    private int[] placements;
+
+    /** Cell and value of every domain removal made by the descent, in order. */
+    private int[] removedCells;
+    private int[] removedValues;
+
+    private MyMap<String, MySet<Integer>> myDomains;
+    private HashMap<String, HashSet<Integer>> jdkDomains;
+    private int[] maskDomains;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keys = new String[CELLS];
+        for (int cell = 0; cell < CELLS; cell++)
+            keys[cell] = (cell / 9) + "," + (cell % 9);
+
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        sudoku.read(SudokuConstant.EVIL);
+        recordDescent(sudoku.getGrid());
+
+        myDomains = new MyMap<>();
+        jdkDomains = new HashMap<>();
+        maskDomains = initialDomains.clone();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (initialDomains[cell] == 0)
+                continue;
+            MySet<Integer> mySet = new MySet<>();
+            HashSet<Integer> jdkSet = new HashSet<>();
+            for (int v = 1; v <= 9; v++) {
+                if ((initialDomains[cell] & CandidateState.bit(v)) != 0) {
+                    mySet.add(v);
+                    jdkSet.add(v);
+                }
+            }
+            myDomains.put(keys[cell], mySet);
+            jdkDomains.put(keys[cell], jdkSet);
+        }
+    }
+
+    /**
+     * Runs forward checking without backtracking: repeatedly place the lowest
+     * candidate of the most constrained cell and remove it from the peers,
+     * until the grid is full or a domain empties.
+     */
+    private void recordDescent(int[][] grid) {
+        CandidateState state = new CandidateState();
+        state.load(grid);
+
+        int[] domains = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (grid[cell / 9][cell % 9] == 0)
+                domains[cell] = state.candidates(cell / 9, cell % 9);
+        }
+        initialDomains = domains.clone();
+
+        List<Integer> placed = new ArrayList<>();
+        List<int[]> removed = new ArrayList<>();
+        boolean[] assigned = new boolean[CELLS];
+        while (true) {
+            int best = -1;
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (domains[cell] != 0 && !assigned[cell]
+                        && (best < 0 || Integer.bitCount(domains[cell]) < Integer.bitCount(domains[best])))
+                    best = cell;
+            }
+            if (best < 0)
+                break;
+
+            int value = Integer.numberOfTrailingZeros(domains[best]) + 1;
+            assigned[best] = true;
+            placed.add(best);
+            boolean deadEnd = false;
+            for (int peer : CandidateState.peers(best)) {
+                if (!assigned[peer] && (domains[peer] & CandidateState.bit(value)) != 0) {
+                    domains[peer] &= ~CandidateState.bit(value);
+                    removed.add(new int[] { peer, value });
+                    deadEnd |= domains[peer] == 0;
+                }
+            }
+            if (deadEnd)
+                break;
+        }
+
+        placements = placed.stream().mapToInt(Integer::intValue).toArray();
+        removedCells = removed.stream().mapToInt(r -> r[0]).toArray();
+        removedValues = removed.stream().mapToInt(r -> r[1]).toArray();
+    }
+
+    // ---------------------------------------------------------------- lookup
+
+    @Benchmark
+    public int lookupMyMap() {
+        int found = 0;
+        for (int cell : placements) {
+            for (int peer : CandidateState.peers(cell)) {
+                if (myDomains.get(keys[peer]) != null)
+                    found++;
+            }
+        }
+        return found;
+    }
+
+    /** As the original solver did it, building the key string per lookup. */
+    @Benchmark
+    public int lookupMyMapBuiltKeys() {
+        int found = 0;
+        for (int cell : placements) {
+            for (int peer : CandidateState.peers(cell)) {
+                if (myDomains.get((peer / 9) + "," + (peer % 9)) != null)
+                    found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int lookupHashMap() {
+        int found = 0;
+        for (int cell : placements) {
+            for (int peer : CandidateState.peers(cell)) {
+                if (jdkDomains.get(keys[peer]) != null)
+                    found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int lookupCellIndex() {
+        int found = 0;
+        for (int cell : placements) {
+            for (int peer : CandidateState.peers(cell)) {
+                if (maskDomains[peer] != 0)
+                    found++;
+            }
+        }
+        return found;
+    }
+
+    // --------------------------------------------------------------- domains
+
+    @Benchmark
+    public int domainsMySet() {
+        @SuppressWarnings("unchecked")
+        MySet<Integer>[] domains = new MySet[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (initialDomains[cell] == 0)
+                continue;
+            domains[cell] = new MySet<>();
+            for (int v = 1; v <= 9; v++) {
+                if ((initialDomains[cell] & CandidateState.bit(v)) != 0)
+                    domains[cell].add(v);
+            }
+        }
+
+        int empty = 0;
+        for (int i = 0; i < removedCells.length; i++) {
+            MySet<Integer> domain = domains[removedCells[i]];
+            domain.remove(removedValues[i]);
+            if (domain.isEmpty())
+                empty++;
+        }
+        return empty;
+    }
+
+    @Benchmark
+    public int domainsHashSet() {
+        @SuppressWarnings("unchecked")
+        HashSet<Integer>[] domains = new HashSet[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (initialDomains[cell] == 0)
+                continue;
+            domains[cell] = new HashSet<>();
+            for (int v = 1; v <= 9; v++) {
+                if ((initialDomains[cell] & CandidateState.bit(v)) != 0)
+                    domains[cell].add(v);
+            }
+        }
+
+        int empty = 0;
+        for (int i = 0; i < removedCells.length; i++) {
+            HashSet<Integer> domain = domains[removedCells[i]];
+            domain.remove(removedValues[i]);
+            if (domain.isEmpty())
+                empty++;
+        }
+        return empty;
+    }
+
+    @Benchmark
+    public int domainsBitmask() {
+        int[] domains = new int[CELLS];
+        System.arraycopy(initialDomains, 0, domains, 0, CELLS);
+
+        int empty = 0;
+        for (int i = 0; i < removedCells.length; i++) {
+            int cell = removedCells[i];
+            domains[cell] &= ~CandidateState.bit(removedValues[i]);
+            if (domains[cell] == 0)
+                empty++;
+        }
+        return empty;
+    }
+
+    // ------------------------------------------------------------------ copy
+
+    @Benchmark
+    public MyMap<String, MySet<Integer>> copyMyMap() {
+        MyMap<String, MySet<Integer>> copy = new MyMap<>();
+        for (int cell = 0; cell < CELLS; cell++) {
+            MySet<Integer> domain = myDomains.get(keys[cell]);
+            if (domain == null)
+                continue;
+            MySet<Integer> setCopy = new MySet<>();
+            for (int v = 1; v <= 9; v++) {
+                if (domain.contains(v))
+                    setCopy.add(v);
+            }
+            copy.put(keys[cell], setCopy);
+        }
+        return copy;
+    }
+
+    @Benchmark
+    public HashMap<String, HashSet<Integer>> copyHashMap() {
+        HashMap<String, HashSet<Integer>> copy = new HashMap<>();
+        jdkDomains.forEach((key, domain) -> copy.put(key, new HashSet<>(domain)));
+        return copy;
+    }
+
+    @Benchmark
+    public int[] copyBitmask() {
+        return maskDomains.clone();
+    }
+
+    // ------------------------------------------------------------------ list
+
+    @Benchmark
+    public int listMyLinkedList() {
+        MyLinkedList<Integer> list = new MyLinkedList<>();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (initialDomains[cell] != 0)
+                list.add(cell);
+        }
+        for (int cell : placements) {
+            if (list.contains(cell))
+                list.remove(cell);
+        }
+        return list.size();
+    }
+
+    @Benchmark
+    public int listLinkedList() {
+        LinkedList<Integer> list = new LinkedList<>();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (initialDomains[cell] != 0)
+                list.add(cell);
+        }
+        for (int cell : placements) {
+            Integer boxed = cell;
+            if (list.contains(boxed))
+                list.remove(boxed);
+        }
+        return list.size();
+    }
+
+    @Benchmark
+    public int listArrayList() {
+        ArrayList<Integer> list = new ArrayList<>(CELLS);
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (initialDomains[cell] != 0)
+                list.add(cell);
+        }
+        for (int cell : placements) {
+            Integer boxed = cell;
+            if (list.contains(boxed))
+                list.remove(boxed);
+        }
+        return list.size();
+    }
+
+    /** The list as a two-word bit set over the 81 cells. */
+    @Benchmark
+    public int listBitmask() {
+        long low = 0, high = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (initialDomains[cell] != 0) {
+                if (cell < 64)
+                    low |= 1L << cell;
+                else
+                    high |= 1L << (cell - 64);
+            }
+        }
+        for (int cell : placements) {
+            if (cell < 64)
+                low &= ~(1L << cell);
+            else
+                high &= ~(1L << (cell - 64));
+        }
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+}
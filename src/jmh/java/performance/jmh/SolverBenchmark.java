@@ -0,0 +1,141 @@
+package performance.jmh;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.BasicBacktracking;
+import sudoku.solver.DancingLinksArray;
+import sudoku.solver.DancingLinksX;
+import sudoku.solver.ForwardChecking;
+import sudoku.solver.MRVBacktracking;
+import sudoku.solver.Solver;
+
+/**
+ * JMH benchmark of every sequential solver on the puzzles of
+ * {@code input.txt}, one difficulty level at a time.
+ * <p>
+ * Each operation restores the next puzzle of the level into a reused grid and
+ * solves it, cycling through the level. Restoring is a few row copies, so the
+ * score is dominated by the solve. The benchmark returns the solver's result,
+ * which JMH consumes, and the solver writes the whole grid, so the search
+ * cannot be eliminated as dead code.
+ * </p>
+ * <p>
+ * The input file defaults to the one used by {@link performance.TestInput} and
+ * can be changed with {@code -Dsudoku.input=path}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.AverageTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SolverBenchmark {
+
+    @Param({ "DancingLinksX", "DancingLinksArray", "BasicBacktracking", "ForwardChecking", "MRVBacktracking" })
+    public String solverName;
+
+    @Param({ "EASY", "MEDIUM", "HARD", "EVIL" })
+    public String level;
+
+    private Solver solver;
+    private Sudoku sudoku;
+    private int[][][] puzzles;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        solver = createSolver(solverName);
+        sudoku = new Sudoku(SudokuConstant.N);
+        solver.setSudoku(sudoku);
+        puzzles = loadLevel(level);
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean solve() {
+        int[][] puzzle = puzzles[next];
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+
+        int[][] grid = sudoku.getGrid();
+        for (int r = 0; r < grid.length; r++)
+            System.arraycopy(puzzle[r], 0, grid[r], 0, grid[r].length);
+        return solver.solve();
+    }
+
+    /**
+     * Creates a solver from its simple class name.
+     *
+     * @param name The name given as benchmark parameter.
+     * @return A new solver.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    static Solver createSolver(String name) {
+        switch (name) {
+            case "DancingLinksX":
+                return new DancingLinksX();
+            case "DancingLinksArray":
+                return new DancingLinksArray();
+            case "BasicBacktracking":
+                return new BasicBacktracking();
+            case "ForwardChecking":
+                return new ForwardChecking();
+            case "MRVBacktracking":
+                return new MRVBacktracking();
+            default:
+                throw new IllegalArgumentException("Unknown solver: " + name);
+        }
+    }
+
+    /**
+     * Reads the puzzles of one level from the {@code LEVEL:digits} input file.
+     *
+     * @param level The level label to select.
+     * @return The grids of that level, in file order.
+     * @throws Exception if the file cannot be read or a puzzle is malformed.
+     * @throws IllegalStateException if the level has no puzzles.
+     */
+    static int[][][] loadLevel(String level) throws Exception {
+        List<int[][]> grids = new ArrayList<>();
+        for (String line : Files.readAllLines(inputPath())) {
+            String[] parts = line.split(":");
+            if (parts.length != 2 || !parts[0].trim().equals(level))
+                continue;
+
+            Sudoku parsed = new Sudoku(SudokuConstant.N);
+            parsed.read(parts[1].trim());
+            grids.add(parsed.getGrid());
+        }
+        if (grids.isEmpty())
+            throw new IllegalStateException("No " + level + " puzzles in " + inputPath());
+        return grids.toArray(new int[0][][]);
+    }
+
+    private static Path inputPath() {
+        String path = System.getProperty("sudoku.input");
+        if (path != null)
+            return Paths.get(path);
+        return Paths.get(System.getProperty("user.dir"),
+                "src", "main", "java", "performance", "sudokuIO", "input.txt");
+    }
+}
@@ -0,0 +1,194 @@
+package performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import sudoku.common.ThreadMeasurement;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.DancingLinksArray;
+import sudoku.solver.DancingLinksX;
+import sudoku.solver.ForwardChecking;
+import sudoku.solver.MRVBacktracking;
+import sudoku.solver.SearchBudget;
+import sudoku.solver.Solver;
+import sudoku.solver.StopReason;
+
+/**
+ * Measures how solve time and memory grow with the grid size, from 9x9 to
+ * 16x16 and 25x25.
+ * <p>
+ * Puzzles are generated from a complete grid of each size, shuffled by
+ * relabelling values and permuting bands, stacks, rows and columns, with a
+ * fixed share of the cells blanked. The same seed gives the same puzzles.
+ * Every solver solves each puzzle once within a time budget, and one line is
+ * printed per size and solver with the median wall time and bytes allocated
+ * by a solve, the bytes allocated by creating a solver and running its first
+ * solve, which include its working arrays, and the number of puzzles solved.
+ * </p>
+ */
+public class GridScaling {
+
+    /** Box sizes to measure: 9x9, 16x16 and 25x25 grids */
+    private static final int[] BOX_SIZES = { 3, 4, 5 };
+
+    /** Share of the cells left empty; emptier 25x25 grids make the search time heavy-tailed */
+    private static final double BLANK = 0.4;
+
+    /** Puzzles measured per size */
+    private static final int PUZZLES = 20;
+
+    /** Solves of each kind run before measuring, to warm up the JIT */
+    private static final int WARM_UP = 3;
+
+    /** Time limit of a single solve */
+    private static final SearchBudget budget = SearchBudget.timeout(10, TimeUnit.SECONDS);
+
+    /** Solvers that handle every grid size */
+    private static final List<Supplier<Solver>> solvers = List.of(
+            DancingLinksArray::new,
+            DancingLinksX::new,
+            ForwardChecking::new,
+            MRVBacktracking::new);
+
+    /**
+     * Runs the scaling measurement.
+     *
+     * @param args Optional seed of the generated puzzles.
+     * @throws Exception if a generated puzzle cannot be read.
+     */
+    public static void main(String[] args) throws Exception {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+
+        System.out.printf("%-6s %-28s %12s %12s %12s %8s%n",
+                "grid", "solver", "median ms", "median KB", "first KB", "solved");
+        for (int box : BOX_SIZES) {
+            List<int[][]> puzzles = new ArrayList<>();
+            for (String puzzle : generate(box, PUZZLES, BLANK, new Random(seed))) {
+                Sudoku sudoku = new Sudoku(box * box);
+                sudoku.read(puzzle);
+                puzzles.add(sudoku.getGrid());
+            }
+
+            for (Supplier<Solver> factory : solvers) {
+                // A new solver's first solve also allocates its working state
+                Solver[] created = new Solver[1];
+                ThreadMeasurement first = ThreadMeasurement.measure(() -> {
+                    created[0] = factory.get();
+                    created[0].setBudget(budget);
+                    solve(created[0], puzzles.get(0));
+                });
+                Solver solver = created[0];
+                for (int i = 0; i < WARM_UP; i++)
+                    solve(solver, puzzles.get(i % puzzles.size()));
+
+                long[] wall = new long[puzzles.size()];
+                long[] allocated = new long[puzzles.size()];
+                int solved = 0;
+                for (int[][] puzzle : puzzles) {
+                    ThreadMeasurement m = ThreadMeasurement.measure(() -> solve(solver, puzzle));
+                    if (solver.getStopReason() == StopReason.SOLVED) {
+                        wall[solved] = m.getWallNanos();
+                        allocated[solved] = m.getAllocatedBytes();
+                        solved++;
+                    }
+                }
+
+                System.out.printf("%-6s %-28s %12.3f %12.1f %12.1f %5d/%d%n",
+                        box * box + "x" + box * box, solver.getName(),
+                        median(wall, solved) / 1_000_000.0, median(allocated, solved) / 1024.0,
+                        first.getAllocatedBytes() / 1024.0, solved, puzzles.size());
+            }
+        }
+    }
+
+    /**
+     * Solves a copy of one puzzle.
+     */
+    private static void solve(Solver solver, int[][] puzzle) {
+        Sudoku sudoku = new Sudoku(puzzle.length);
+        for (int r = 0; r < puzzle.length; r++)
+            System.arraycopy(puzzle[r], 0, sudoku.getGrid()[r], 0, puzzle.length);
+        solver.setSudoku(sudoku);
+        if (solver.solve() && !sudoku.isSolved())
+            throw new IllegalStateException(solver.getName() + " returned an invalid grid");
+    }
+
+    /**
+     * Generates puzzles of one box size.
+     *
+     * @param box    The box size.
+     * @param count  The number of puzzles.
+     * @param blank  The share of the cells left empty.
+     * @param random The source of the shuffles.
+     * @return The puzzles in the text form read by {@link Sudoku#read(String)}.
+     */
+    static List<String> generate(int box, int count, double blank, Random random) {
+        int n = box * box;
+        List<String> puzzles = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            int[] values = shuffled(n, random);
+            int[] rows = lines(box, random);
+            int[] cols = lines(box, random);
+
+            StringBuilder sb = new StringBuilder(n * n);
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) {
+                    // A valid complete grid: each row shifts the previous one by a box,
+                    // and each band by one more cell
+                    int row = rows[r], col = cols[c];
+                    int value = (row % box * box + row / box + col) % n;
+                    sb.append(random.nextDouble() < blank ? '0'
+                            : SudokuConstant.symbolOf(values[value] + 1));
+                }
+            }
+            puzzles.add(sb.toString());
+        }
+        return puzzles;
+    }
+
+    /**
+     * Returns a permutation of the rows (or columns) of a grid that keeps the
+     * boxes intact: the bands are shuffled, and so are the rows of each band.
+     */
+    private static int[] lines(int box, Random random) {
+        int[] bands = shuffled(box, random);
+        int[] lines = new int[box * box];
+        for (int b = 0; b < box; b++) {
+            int[] within = shuffled(box, random);
+            for (int i = 0; i < box; i++)
+                lines[b * box + i] = bands[b] * box + within[i];
+        }
+        return lines;
+    }
+
+    private static int[] shuffled(int n, Random random) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++)
+            a[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    /**
+     * Returns the median of the first {@code count} values, or 0 if there are
+     * none.
+     */
+    private static double median(long[] values, int count) {
+        if (count == 0)
+            return 0;
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        int mid = count / 2;
+        return count % 2 == 1 ? sorted[mid] : (sorted[mid - 1] / 2.0 + sorted[mid] / 2.0);
+    }
+}
@@ -0,0 +1,106 @@
+package performance;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.ParallelDancingLinks;
+import sudoku.solver.Solver;
+
+/**
+ * Measures how the single-puzzle parallel Dancing Links search scales with
+ * the number of threads (1, 2, 4, 8 and 16) on the EVIL puzzles of
+ * {@code input.txt}, and prints one line per thread count with the total
+ * time and the speed-up over one thread. The puzzles are 9x9, as are all
+ * those of {@code input.txt}.
+ */
+public class ParallelScaling {
+
+    /** Path to the input file with level:puzzle entries */
+    private static final String inputFilePath = Paths.get(
+            System.getProperty("user.dir"),
+            "src", "main", "java", "performance", "sudokuIO", "input.txt").toString();
+
+    /** Thread counts to measure */
+    private static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+    /** Measured passes over the puzzle set per thread count; the best is kept */
+    private static final int PASSES = 20;
+
+    /**
+     * Runs the scaling measurement.
+     *
+     * @param args Optional level to measure instead of EVIL.
+     * @throws Exception if the input cannot be read or parsed.
+     */
+    public static void main(String[] args) throws Exception {
+        String level = args.length > 0 ? args[0] : "EVIL";
+        List<String> puzzles = readLevel(level);
+        System.out.println("Level " + level + ", " + puzzles.size() + " puzzles, "
+                + Runtime.getRuntime().availableProcessors() + " cores available");
+
+        // Warm up the JIT on every configuration before measuring any of them
+        ParallelDancingLinks[] solvers = new ParallelDancingLinks[THREADS.length];
+        for (int i = 0; i < THREADS.length; i++) {
+            solvers[i] = new ParallelDancingLinks(THREADS[i]);
+            for (int j = 0; j < PASSES; j++)
+                runPass(solvers[i], puzzles);
+        }
+
+        long baseline = 0;
+        for (int t = 0; t < THREADS.length; t++) {
+            int threads = THREADS[t];
+            long best = Long.MAX_VALUE;
+            try (ParallelDancingLinks solver = solvers[t]) {
+                for (int i = 0; i < PASSES; i++) {
+                    best = Math.min(best, runPass(solver, puzzles));
+                }
+            }
+            if (threads == 1)
+                baseline = best;
+
+            System.out.printf("threads=%-3d time=%10.3f ms  speed-up=%.2fx%n",
+                    threads, best / 1_000_000.0, (double) baseline / best);
+        }
+    }
+
+    /**
+     * Solves every puzzle once.
+     *
+     * @return The total wall time in nanoseconds.
+     */
+    private static long runPass(Solver solver, List<String> puzzles) throws Exception {
+        long total = 0;
+        for (String puzzle : puzzles) {
+            Sudoku sudoku = new Sudoku(SudokuConstant.N);
+            sudoku.read(puzzle);
+            solver.setSudoku(sudoku);
+
+            long start = System.nanoTime();
+            boolean solved = solver.solve();
+            total += System.nanoTime() - start;
+
+            if (!solved || !sudoku.isSolved())
+                throw new IllegalStateException("Parallel search failed on " + puzzle);
+        }
+        return total;
+    }
+
+    private static List<String> readLevel(String level) throws IOException {
+        List<String> puzzles = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFilePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(":");
+                if (parts.length == 2 && parts[0].trim().equals(level))
+                    puzzles.add(parts[1].trim());
+            }
+        }
+        return puzzles;
+    }
+}
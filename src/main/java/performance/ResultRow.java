@@ -0,0 +1,67 @@
+package performance;
+
+import sudoku.solver.SearchStats;
+
+/**
+ * One line of the benchmark report: the measurements of a single solve.
+ * <p>
+ * The search statistics are copied on construction, because solvers reuse
+ * their {@link SearchStats} object for the next solve. Instances are immutable
+ * and may be handed to the writer thread of a {@link ResultSink}.
+ * </p>
+ */
+public final class ResultRow {
+    final int sudokuId;
+    final String level;
+    final boolean status;
+    final long time;
+    final long cpuTime;
+    final long allocated;
+    final long nodes;
+    final long backtracks;
+    final int maxDepth;
+    final long candidateChecks;
+    final long covers;
+    final long uncovers;
+    final String algorithm;
+    final String timestamp;
+
+    /**
+     * Creates a row.
+     *
+     * @param sudokuId  The number of the puzzle in the corpus.
+     * @param level     The difficulty level of the puzzle.
+     * @param status    Whether the puzzle was solved.
+     * @param time      The wall time of the solve in microseconds.
+     * @param cpuTime   The CPU time of the solving thread in microseconds, or -1.
+     * @param allocated The bytes allocated by the solving thread, or -1.
+     * @param stats     The search statistics of the solve; copied.
+     * @param algorithm The name of the solver.
+     * @param timestamp When the solve ran.
+     */
+    public ResultRow(int sudokuId, String level, boolean status, long time, long cpuTime, long allocated,
+            SearchStats stats, String algorithm, String timestamp) {
+        this.sudokuId = sudokuId;
+        this.level = level;
+        this.status = status;
+        this.time = time;
+        this.cpuTime = cpuTime;
+        this.allocated = allocated;
+        this.nodes = stats.getNodes();
+        this.backtracks = stats.getBacktracks();
+        this.maxDepth = stats.getMaxDepth();
+        this.candidateChecks = stats.getCandidateChecks();
+        this.covers = stats.getCovers();
+        this.uncovers = stats.getUncovers();
+        this.algorithm = algorithm;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return The allocated kilobytes, or -1 if unavailable.
+     */
+    long allocatedKB() {
+        // Chia allocated cho 1024 để chuyển đổi sang KB
+        return allocated < 0 ? -1 : allocated / 1024;
+    }
+}
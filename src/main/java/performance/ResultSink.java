@@ -0,0 +1,234 @@
+package performance;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import sudoku.solver.SearchStats;
+
+/**
+ * Writes benchmark results to the text and CSV files of {@link WriteFile}
+ * without reopening them for every row.
+ * <p>
+ * Both files are truncated and opened once, and their headers are written
+ * once. {@link #submit(ResultRow)} puts a row on a bounded queue and returns;
+ * a dedicated writer thread drains the queue in batches, writes each batch to
+ * buffered writers and flushes once per batch. When the queue is full,
+ * {@code submit} blocks until the writer catches up, so a slow disk slows the
+ * benchmark down instead of growing the heap, and fails instead if the writer
+ * thread has stopped. {@link #close()} waits until every submitted row is
+ * written, then flushes and closes both files.
+ * Several threads may submit rows at once; rows from one thread keep their
+ * order.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #submit(ResultRow)}: O(1) amortized.
+ * - Writing: O(n) for n rows, with one flush per batch of up to
+ * {@value #BATCH_SIZE} rows.
+ */
+public class ResultSink implements AutoCloseable {
+    /** Default number of rows the queue can hold. */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /** Largest number of rows written between two flushes. */
+    static final int BATCH_SIZE = 1024;
+
+    /** How long a blocked producer waits before checking the writer thread again. */
+    private static final long POLL_MILLIS = 100;
+
+    /** Marks the end of the stream for the writer thread. */
+    private static final ResultRow END = new ResultRow(0, null, false, 0, 0, 0,
+            new SearchStats(), null, null);
+
+    private final BlockingQueue<ResultRow> queue;
+    private final BufferedWriter txt;
+    private final BufferedWriter csv;
+    private final Thread writer;
+    private volatile Exception failure;
+    private volatile boolean closed;
+
+    /**
+     * Opens the default output files of {@link WriteFile}.
+     *
+     * @throws IOException if a file cannot be opened.
+     */
+    public ResultSink() throws IOException {
+        this(Paths.get(WriteFile.txtPath()), Paths.get(WriteFile.csvPath()), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens the given output files, replacing their content.
+     *
+     * @param txtPath  The text table to write.
+     * @param csvPath  The CSV file to write.
+     * @param capacity The number of rows the queue can hold.
+     * @throws IOException              if a file cannot be opened.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ResultSink(Path txtPath, Path csvPath, int capacity) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.txt = Files.newBufferedWriter(txtPath, StandardCharsets.UTF_8);
+        try {
+            this.csv = Files.newBufferedWriter(csvPath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            txt.close();
+            throw e;
+        }
+        try {
+            txt.write(WriteFile.txtHeader());
+            txt.newLine();
+            csv.write(WriteFile.csvHeader());
+            csv.newLine();
+        } catch (IOException e) {
+            try {
+                closeFiles();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        this.writer = new Thread(this::drain, "result-sink");
+        writer.start();
+    }
+
+    /**
+     * Queues a row for writing, waiting while the queue is full.
+     *
+     * @param row The results of one solve.
+     * @throws IOException           if an earlier write failed, the writer
+     *                               thread has stopped, or the caller was
+     *                               interrupted while waiting.
+     * @throws IllegalStateException if the sink is closed.
+     */
+    public void submit(ResultRow row) throws IOException {
+        if (closed)
+            throw new IllegalStateException("Result sink is closed");
+        checkFailure();
+        try {
+            while (!queue.offer(row, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+                if (!writer.isAlive())
+                    throw new IOException("Result writer thread has stopped");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing a result");
+        }
+    }
+
+    /**
+     * Body of the writer thread: takes batches from the queue until the end
+     * marker, writing and flushing each batch. After a write error, or a row
+     * that cannot be formatted, the remaining rows are discarded so that
+     * producers never block forever. Should the thread still die, the
+     * failure is recorded for {@link #submit} and {@link #close()} to report.
+     */
+    private void drain() {
+        List<ResultRow> batch = new ArrayList<>(BATCH_SIZE);
+        boolean end = false;
+        try {
+            while (!end) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    // Only close() stops this thread, through the end marker
+                    continue;
+                }
+                queue.drainTo(batch, BATCH_SIZE - 1);
+
+                try {
+                    for (ResultRow row : batch) {
+                        if (row == END) {
+                            end = true;
+                            break;
+                        }
+                        if (failure == null)
+                            write(row);
+                    }
+                    if (failure == null) {
+                        txt.flush();
+                        csv.flush();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failure = e;
+                }
+                batch.clear();
+            }
+        } finally {
+            if (!end && failure == null)
+                failure = new IllegalStateException("Result writer thread died");
+        }
+    }
+
+    private void write(ResultRow row) throws IOException {
+        txt.write(WriteFile.txtRow(row));
+        txt.newLine();
+        csv.write(WriteFile.csvRow(row));
+        csv.newLine();
+    }
+
+    private void checkFailure() throws IOException {
+        Exception e = failure;
+        if (e != null)
+            throw new IOException("Writing results failed", e);
+    }
+
+    private void closeFiles() throws IOException {
+        try {
+            txt.close();
+        } finally {
+            csv.close();
+        }
+    }
+
+    /**
+     * Writes every queued row, then flushes and closes both files. Calling it
+     * again has no effect.
+     *
+     * @throws IOException if a row could not be written or a file could not be
+     *                     closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+
+        // A stopped writer would never make room for the end marker
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                if (queue.offer(END, POLL_MILLIS, TimeUnit.MILLISECONDS))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        try {
+            closeFiles();
+        } finally {
+            checkFailure();
+        }
+    }
+}
@@ -1,18 +1,19 @@
 package performance;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
-import sudoku.common.Utils;
+import sudoku.common.ThreadMeasurement;
+import sudoku.io.PuzzleSource;
 import sudoku.model.Sudoku;
 import sudoku.solver.*;
 import static sudoku.model.SudokuConstant.N;
 
 /**
  * Benchmarks different Sudoku solving algorithms on multiple puzzles.
- * It performs warm-up runs, real executions, and logs time and memory usage.
+ * It performs warm-up runs, real executions, and logs wall time, CPU time,
+ * allocated bytes and the search statistics of every solve.
  *
  * Solver complexities (worst-case):
  * - BasicBacktracking: O(9^(N*N)) — brute-force search.
@@ -32,9 +33,13 @@ public class TestInput {
     /** Number of warm-up runs per solver to reduce JIT impact */
     private static final int dummyRuns = 10;
 
+    /** Time limit of a single solve, enforced by the solver itself */
+    private static final SearchBudget budget = SearchBudget.timeout(2, TimeUnit.MINUTES);
+
     /** Array of solver strategies to benchmark */
     private static final Solver[] solvers = {
             new DancingLinksX(),
+            new DancingLinksArray(),
             new BasicBacktracking(),
             new ForwardChecking(),
             new MRVBacktracking(),
@@ -43,30 +48,19 @@ public class TestInput {
     /**
      * Performs warm-up executions for each solver on a subset of puzzles.
      *
-     * @param inputFilePath path to input puzzles
+     * @param inputFilePath path to input puzzles, in the text or binary format
      * @param dummyRuns     number of runs per solver
      * @throws IOException if file access fails
      */
     public static void dummyRuns(String inputFilePath, int dummyRuns) throws IOException {
         for (Solver solver : solvers) {
-            try (BufferedReader dummyReader = new BufferedReader(new FileReader(inputFilePath))) {
-                String line;
+            try (PuzzleSource dummyReader = PuzzleSource.open(Paths.get(inputFilePath))) {
                 int currentRun = 0;
 
-                while ((line = dummyReader.readLine()) != null && currentRun < dummyRuns) {
-                    String[] parts = line.split(":");
-                    if (parts.length != 2)
-                        continue;
-
-                    String puzzle = parts[1].trim();
+                while (currentRun < dummyRuns && dummyReader.next()) {
                     Sudoku sudoku = new Sudoku(9);
-
-                    try {
-                        sudoku.read(puzzle);
-                        solver.setSudoku(sudoku);
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
+                    dummyReader.copyTo(sudoku.getGrid());
+                    solver.setSudoku(sudoku);
 
                     solver.solve();
                     currentRun++;
@@ -76,32 +70,44 @@ public class TestInput {
     }
 
     /**
-     * Executes the solver with timing and memory usage measurement.
+     * Executes the solver and measures it on the solving thread itself, so
+     * thread start-up is excluded and no GC is forced. CPU time and allocated
+     * bytes are those of the solving thread, or -1 if the JVM cannot report
+     * them.
      *
      * @param solver the Sudoku solver to benchmark
-     * @return array [solved:1|0, time in microseconds, memory in bytes]
+     * @return array [solved:1|0, wall time in microseconds, CPU time in
+     *         microseconds, allocated bytes]
      */
     public static long[] realRunning(Solver solver) {
         try {
-            Utils.getMemoryUsed(true); // Trigger GC
-            long beforeMemory = Utils.getMemoryUsed(false);
-            long startTime = System.nanoTime();
-
             final boolean[] solved = { false };
+            final ThreadMeasurement[] measurement = { null };
+            solver.setBudget(budget);
             Thread solverThread = new Thread(() -> {
-                solved[0] = solver.solve();
+                measurement[0] = ThreadMeasurement.measure(() -> solved[0] = solver.solve());
             });
 
             solverThread.start();
             solverThread.join(2 * 60 * 1000); // 2-minute timeout
+            if (solverThread.isAlive()) {
+                // The solver polls the interrupt flag and stops within milliseconds,
+                // so it does not keep running alongside the next measurement
+                solverThread.interrupt();
+                solverThread.join();
+            }
 
-            long timeUsed = System.nanoTime() - startTime;
-            long afterMemory = Utils.getMemoryUsed(false);
-            long memoryUsed = afterMemory - beforeMemory;
+            ThreadMeasurement m = measurement[0];
+            if (m == null) {
+                System.out.println(solver.getName() + " failed: " + solver.getStopReason());
+                return new long[] { 0L, 0L, 0L, 0L };
+            }
+            long wallMicros = m.getWallNanos() / 1000;
+            long cpuMicros = m.getCpuNanos() < 0 ? -1 : m.getCpuNanos() / 1000;
 
-            if (solverThread.isAlive()) {
-                solverThread.interrupt(); // Force stop
-                return new long[] { 0L, timeUsed / 1000, memoryUsed };
+            if (solver.getStopReason() != StopReason.SOLVED && solver.getStopReason() != StopReason.EXHAUSTED) {
+                System.out.println(solver.getName() + " stopped: " + solver.getStopReason());
+                return new long[] { 0L, wallMicros, cpuMicros, m.getAllocatedBytes() };
             }
 
             boolean isActuallySolved = false;
@@ -113,13 +119,14 @@ public class TestInput {
 
             return new long[] {
                     (solved[0] && isActuallySolved) ? 1L : 0L,
-                    timeUsed / 1000,
-                    memoryUsed
+                    wallMicros,
+                    cpuMicros,
+                    m.getAllocatedBytes()
             };
 
         } catch (Exception e) {
             System.out.println("Error running solver: " + e.getMessage());
-            return new long[] { 0L, 0L, 0L };
+            return new long[] { 0L, 0L, 0L, 0L };
         }
     }
 
@@ -127,34 +134,29 @@ public class TestInput {
      * Runs benchmarking on all puzzles using all solvers.
      * Records results in output file with timestamps.
      *
-     * @param args unused
+     * @param args optional path of the corpus to run, in the text or binary
+     *             format; defaults to {@code input.txt}
      */
     public static void main(String[] args) {
         try {
-            dummyRuns(inputFilePath, dummyRuns);
-            WriteFile.clearFile();
+            String corpus = args.length > 0 ? args[0] : inputFilePath;
+            dummyRuns(corpus, dummyRuns);
 
-            int sudokuId = 1;
+            // Warm-up ran without statistics so the JIT sees the fast path first
+            for (Solver solver : solvers)
+                solver.setStatsEnabled(true);
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(inputFilePath))) {
-                String line;
-
-                while ((line = reader.readLine()) != null) {
-                    String[] parts = line.split(":");
-                    if (parts.length != 2)
-                        continue;
+            int sudokuId = 1;
 
-                    String level = parts[0].trim();
-                    String puzzle = parts[1].trim();
+            try (PuzzleSource reader = PuzzleSource.open(Paths.get(corpus));
+                    ResultSink sink = new ResultSink()) {
+                while (reader.next()) {
+                    String level = reader.level() != null ? reader.level() : "UNKNOWN";
 
                     for (Solver solver : solvers) {
                         Sudoku sudoku = new Sudoku(N);
-                        try {
-                            sudoku.read(puzzle);
-                            solver.setSudoku(sudoku);
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
+                        reader.copyTo(sudoku.getGrid());
+                        solver.setSudoku(sudoku);
 
                         long[] result = realRunning(solver);
 
@@ -164,16 +166,18 @@ public class TestInput {
 
                         boolean status = result[0] != 0;
                         long timeTaken = result[1];
-                        long memoryUsed = result[2];
+                        long cpuTime = result[2];
+                        long allocated = result[3];
 
-                        WriteFile.writeFile(sudokuId, level, status, timeTaken, memoryUsed, algorithm, timestamp);
+                        sink.submit(new ResultRow(sudokuId, level, status, timeTaken, cpuTime, allocated,
+                                solver.getStats(), algorithm, timestamp));
                     }
 
                     sudokuId++;
                 }
             }
 
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             System.err.println("Error reading input file: " + e.getMessage());
         }
     }
@@ -6,6 +6,8 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Paths;
 
+import sudoku.solver.SearchStats;
+
 /**
  * Utility class for writing Sudoku solver performance results to both
  * TXT and CSV files.
@@ -29,6 +31,11 @@ public class WriteFile {
             System.getProperty("user.dir"),
             "src", "main", "java", "performance", "sudokuIO", "csvoutput.csv").toString();
 
+    /**
+     * Column layout of the text table.
+     */
+    private static final String TXT_FORMAT = "| %-5s | %-21s | %-10s | %-10s | %-15s | %-15s | %-15s | %-12s | %-12s | %-9s | %-16s | %-12s | %-12s | %-20s |";
+
     /**
      * Clears the content of the text, CSV, and summary output files by overwriting
      * them with empty content.
@@ -54,115 +61,148 @@ public class WriteFile {
 
     /**
      * Writes the Sudoku solving results to both the text and CSV files.
+     * <p>
+     * The older column names are kept for the analysis notebook: "Memory Used
+     * (KB)" now holds the bytes allocated by the solving thread, and, as
+     * before, "Time Taken (ms)" holds the value passed in, which
+     * {@link TestInput} measures in microseconds. The newer "CPU Time (us)"
+     * column is labelled with its actual unit.
+     * </p>
      *
      * @param level      The difficulty level of the Sudoku puzzle (e.g., "easy",
      *                   "medium").
      * @param status     Whether the Sudoku was solved successfully (true) or not
      *                   (false).
-     * @param time       The time taken to solve the Sudoku in milliseconds.
-     * @param memoryUsed The amount of memory used during solving, in bytes.
+     * @param time       The wall time taken to solve the Sudoku in microseconds.
+     * @param cpuTime    The CPU time of the solving thread in microseconds, or
+     *                   -1 if unavailable.
+     * @param allocated  The bytes allocated by the solving thread, or -1 if
+     *                   unavailable.
+     * @param stats      The search statistics of the solve.
      * @param algorithm  The name of the algorithm used to solve the puzzle.
      * @param timestamp  The timestamp when the solving was performed.
      * 
      *                   Worst-case time complexity: O(n) (where n is the size of
      *                   the data being written to both files)
      */
-    public static void writeFile(int sudokuId, String level, boolean status, long time, long memoryUsed,
-            String algorithm,
+    public static void writeFile(int sudokuId, String level, boolean status, long time, long cpuTime,
+            long allocated, SearchStats stats, String algorithm,
             String timestamp) {
-        writeToTxtFile(TXT_FILEPATH, sudokuId, level, status, time, memoryUsed, algorithm, timestamp);
-        writeToCsvFile(CSV_FILEPATH, sudokuId, level, status, time, memoryUsed, algorithm, timestamp);
+        ResultRow row = new ResultRow(sudokuId, level, status, time, cpuTime, allocated, stats, algorithm, timestamp);
+        appendRow(TXT_FILEPATH, txtHeader(), txtRow(row), "text");
+        appendRow(CSV_FILEPATH, csvHeader(), csvRow(row), "CSV");
     }
 
     /**
-     * Writes the results to a formatted table in a plain text file.
+     * Appends one line to a file, writing the header first if the file is
+     * empty. The file is opened and closed on every call; use a
+     * {@link ResultSink} to write many rows.
      *
-     * @param filePath   Path to the output text file.
-     * @param level      The difficulty level of the Sudoku.
-     * @param status     Solving status: true if solved, false otherwise.
-     * @param time       Time taken in milliseconds.
-     * @param memoryUsed Memory used in bytes.
-     * @param algorithm  Solver algorithm name.
-     * @param timestamp  Timestamp of the execution.
+     * @param filePath Path to the output file.
+     * @param header   The header lines, without the final line separator.
+     * @param line     The row to append.
+     * @param kind     The kind of file, for the error message.
      * 
-     *                   Worst-case time complexity: O(n) (where n is the size of
-     *                   the data being written to the text file)
+     *                 Worst-case time complexity: O(n) (where n is the size of
+     *                 the data being written to the file)
      */
-    private static void writeToTxtFile(String filePath, int id, String level, boolean status, long time,
-            long memoryUsed,
-            String algorithm, String timestamp) {
+    private static void appendRow(String filePath, String header, String line, String kind) {
         File file = new File(filePath);
         boolean isFileEmpty = !file.exists() || file.length() == 0;
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) {
             if (isFileEmpty) {
-                writer.write(String.format("| %-5s | %-21s | %-10s | %-10s | %-20s | %-20s | %-20s |",
-                        "ID", "Algorithm", "Level", "Status", "Time Taken (ms)", "Memory Used (KB)", "Time"));
-                writer.newLine();
-                writer.write(String.format("| %-5s | %-21s | %-10s | %-10s | %-20s | %-20s | %-20s |",
-                        "-----", "---------------------", "----------", "----------", "--------------------",
-                        "--------------------", "--------------------"));
+                writer.write(header);
                 writer.newLine();
             }
-
-            // Chia memoryUsed cho 1024 để chuyển đổi sang KB
-            long memoryInKB = memoryUsed / 1024;
-
-            writer.write(String.format("| %-5s | %-21s | %-10s | %-10s | %-20s | %-20s | %-20s |",
-                    id,
-                    algorithm,
-                    level,
-                    (status ? "Solved" : "Unsolved"),
-                    time,
-                    memoryInKB, // Sử dụng memoryInKB thay vì memoryUsed
-                    timestamp));
+            writer.write(line);
             writer.newLine();
         } catch (IOException e) {
-            System.err.println("Error writing to text file: " + e.getMessage());
+            System.err.println("Error writing to " + kind + " file: " + e.getMessage());
         }
     }
 
     /**
-     * Writes the results to a CSV file.
-     *
-     * @param filePath   Path to the output CSV file.
-     * @param level      The difficulty level of the Sudoku.
-     * @param status     Solving status: true if solved, false otherwise.
-     * @param time       Time taken in milliseconds.
-     * @param memoryUsed Memory used in bytes.
-     * @param algorithm  Solver algorithm name.
-     * @param timestamp  Timestamp of the execution.
-     * 
-     *                   Worst-case time complexity: O(n) (where n is the size of
-     *                   the data being written to the CSV file)
+     * @return The path of the text output file.
      */
-    private static void writeToCsvFile(String filePath, int id, String level, boolean status, long time,
-            long memoryUsed,
-            String algorithm, String timestamp) {
-        File file = new File(filePath);
-        boolean isFileEmpty = !file.exists() || file.length() == 0;
+    static String txtPath() {
+        return TXT_FILEPATH;
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) {
-            if (isFileEmpty) {
-                writer.write("Sudoku ID,Algorithm,Level,Status,Time Taken (ms),Memory Used (KB)");
-                writer.newLine();
-            }
+    /**
+     * @return The path of the CSV output file.
+     */
+    static String csvPath() {
+        return CSV_FILEPATH;
+    }
 
-            // Chia memoryUsed cho 1024 để chuyển đổi sang KB
-            long memoryInKB = memoryUsed / 1024;
+    /**
+     * @return The two header lines of the text table, separated by a line
+     *         separator.
+     */
+    static String txtHeader() {
+        return String.format(TXT_FORMAT,
+                "ID", "Algorithm", "Level", "Status", "Time Taken (ms)", "Memory Used (KB)", "CPU Time (us)", "Nodes",
+                "Backtracks", "Max Depth", "Candidate Checks", "Covers", "Uncovers", "Time")
+                + System.lineSeparator()
+                + String.format(TXT_FORMAT,
+                        "-----", "---------------------", "----------", "----------", "---------------",
+                        "---------------", "---------------", "------------", "------------", "---------",
+                        "----------------", "------------", "------------", "--------------------");
+    }
 
-            String csvLine = String.format("%d,%s,%s,%s,%d,%d",
-                    id,
-                    algorithm,
-                    level,
-                    (status ? "Solved" : "Unsolved"),
-                    time,
-                    memoryInKB); // Sử dụng memoryInKB thay vì memoryUsed
+    /**
+     * Formats a row of the text table.
+     *
+     * @param row The results of one solve.
+     * @return The table line, without a line separator.
+     */
+    static String txtRow(ResultRow row) {
+        return String.format(TXT_FORMAT,
+                row.sudokuId,
+                row.algorithm,
+                row.level,
+                (row.status ? "Solved" : "Unsolved"),
+                row.time,
+                row.allocatedKB(),
+                row.cpuTime,
+                row.nodes,
+                row.backtracks,
+                row.maxDepth,
+                row.candidateChecks,
+                row.covers,
+                row.uncovers,
+                row.timestamp);
+    }
 
-            writer.write(csvLine);
-            writer.newLine();
-        } catch (IOException e) {
-            System.err.println("Error writing to CSV file: " + e.getMessage());
-        }
+    /**
+     * @return The header line of the CSV file.
+     */
+    static String csvHeader() {
+        return "Sudoku ID,Algorithm,Level,Status,Time Taken (ms),Memory Used (KB),CPU Time (us),"
+                + "Nodes,Backtracks,Max Depth,Candidate Checks,Covers,Uncovers";
+    }
+
+    /**
+     * Formats a row of the CSV file.
+     *
+     * @param row The results of one solve.
+     * @return The CSV line, without a line separator.
+     */
+    static String csvRow(ResultRow row) {
+        return String.format("%d,%s,%s,%s,%d,%d,%d,%d,%d,%d,%d,%d,%d",
+                row.sudokuId,
+                row.algorithm,
+                row.level,
+                (row.status ? "Solved" : "Unsolved"),
+                row.time,
+                row.allocatedKB(),
+                row.cpuTime,
+                row.nodes,
+                row.backtracks,
+                row.maxDepth,
+                row.candidateChecks,
+                row.covers,
+                row.uncovers);
     }
 }
\ No newline at end of file
@@ -1,16 +1,23 @@
 package sudoku;
 
+import java.nio.file.Paths;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
-import sudoku.common.Utils;
+import sudoku.common.InputValidator;
+import sudoku.common.ThreadMeasurement;
+import sudoku.io.SolutionStore;
 import sudoku.model.Sudoku;
-import static sudoku.model.SudokuConstant.N;
 import sudoku.model.SudokuManager;
 import sudoku.solver.BasicBacktracking;
+import sudoku.solver.DancingLinksArray;
 import sudoku.solver.DancingLinksX;
 import sudoku.solver.ForwardChecking;
 import sudoku.solver.MRVBacktracking;
+import sudoku.solver.SearchBudget;
 import sudoku.solver.Solver;
+import sudoku.solver.StopReason;
+import sudoku.solver.StoredSolver;
 
 /**
  * The entry point for the Sudoku solver application.
@@ -23,25 +30,38 @@ public class Main {
      */
     private static final int TIMEOUT_MINUTES = 2;
 
+    /**
+     * System property naming a {@link SolutionStore} file. When set, a solver
+     * backed by the store also runs, so puzzles solved by an earlier run are
+     * answered without a search.
+     */
+    private static final String STORE_PROPERTY = "sudoku.store";
+
     /**
      * The main method to start the application.
      * Reads a Sudoku puzzle from input, then attempts to solve it using
      * several algorithms, printing out performance metrics and solutions.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments (not used). Set the system property
+     *             {@value #STORE_PROPERTY} to a file path to also run a
+     *             solver backed by a persistent solution store.
      * @throws Exception if input or processing fails.
      */
     public static void main(String[] args) throws Exception {
         Scanner scanner = new Scanner(System.in);
         String input = SudokuManager.getSudokuMatrix(scanner);
 
-        if (input == null||input.length()!=81) {
+        int size;
+        try {
+            size = InputValidator.validateInput(input);
+        } catch (IllegalArgumentException e) {
             System.out.println("Provided Sudoku is invalid. Exiting the program.");
             return;
         }
 
         Solver[] solvers = {
                 new DancingLinksX(),
+                new DancingLinksArray(),
                 new BasicBacktracking(),
                 new ForwardChecking(),
                 new MRVBacktracking(),
@@ -49,9 +69,18 @@ public class Main {
         };
 
         for (Solver solver : solvers) {
-            solveAndMeasure(solver, input);
+            solveAndMeasure(solver, input, size);
             System.out.println("----------");
         }
+
+        String storePath = System.getProperty(STORE_PROPERTY);
+        if (storePath != null) {
+            try (SolutionStore store = new SolutionStore(Paths.get(storePath))) {
+                StoredSolver stored = new StoredSolver(new DancingLinksArray(), store);
+                solveAndMeasure(stored, input, size);
+                System.out.println(stored.wasHit() ? "(answered from the store)" : "(added to the store)");
+            }
+        }
     }
 
     /**
@@ -59,44 +88,43 @@ public class Main {
      *
      * @param solver The solver instance to use.
      * @param input  The input string representing the Sudoku puzzle.
+     * @param size   The side length of the grid.
      */
-    private static void solveAndMeasure(Solver solver, String input) {
+    private static void solveAndMeasure(Solver solver, String input, int size) {
         try {
-            Sudoku sudoku = new Sudoku(N);
+            Sudoku sudoku = new Sudoku(size);
             sudoku.read(input);
             solver.setSudoku(sudoku);
+            solver.setBudget(SearchBudget.timeout(TIMEOUT_MINUTES, TimeUnit.MINUTES));
 
-            // Prepare memory measurement
-            Utils.getMemoryUsed(true);
-            long beforeMemory = Utils.getMemoryUsed(false);
-            long startTime = System.nanoTime();
-
-            // Run solver with timeout
+            // Run solver with timeout, measured on the solving thread itself
             final boolean[] solved = { false };
+            final ThreadMeasurement[] measurement = { null };
             Thread solverThread = new Thread(() -> {
-                solved[0] = solver.solve();
+                measurement[0] = ThreadMeasurement.measure(() -> solved[0] = solver.solve());
             });
 
             solverThread.start();
             solverThread.join(TIMEOUT_MINUTES * 60 * 1000);
-
-            // Measure time and memory
-            long timeUsed = System.nanoTime() - startTime;
-            long afterMemory = Utils.getMemoryUsed(false);
-            long memoryUsed = afterMemory - beforeMemory;
+            if (solverThread.isAlive()) {
+                // The solver polls the interrupt flag and stops within milliseconds
+                solverThread.interrupt();
+                solverThread.join();
+            }
 
             // Output results
             System.out.println("==> " + solver.getName());
 
-            if (solverThread.isAlive()) {
-                solverThread.interrupt();
+            StopReason reason = solver.getStopReason();
+            if (reason == StopReason.DEADLINE || reason == StopReason.INTERRUPTED) {
                 System.out.println("Timeout after " + TIMEOUT_MINUTES + " minutes!");
             } else if (!solved[0]) {
-                System.out.println("No solution found");
+                System.out.println("No solution found (" + reason + ")");
             } else {
                 System.out.println("Solved successfully!");
-                System.out.printf("Time: %.2f ms\n", timeUsed / 1_000_000.0);
-                System.out.printf("Memory: %.2f KB\n", memoryUsed / 1024.0);
+                System.out.printf("Time: %.2f ms\n", measurement[0].getWallNanos() / 1_000_000.0);
+                System.out.printf("CPU time: %.2f ms\n", measurement[0].getCpuNanos() / 1_000_000.0);
+                System.out.printf("Allocated: %.2f KB\n", measurement[0].getAllocatedBytes() / 1024.0);
                 if (sudoku.isSolved()) {
                     sudoku.print();
                 } else {
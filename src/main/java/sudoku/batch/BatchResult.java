@@ -0,0 +1,81 @@
+package sudoku.batch;
+
+/**
+ * The outcome of solving one puzzle of a batch.
+ * Instances are immutable and may be handed between threads freely.
+ */
+public class BatchResult {
+
+    /**
+     * How a single solve ended.
+     */
+    public enum Status {
+        /** The solver filled the grid and the result passed validation. */
+        SOLVED,
+        /** The solver reported that the puzzle has no solution. */
+        UNSOLVED,
+        /** The puzzle string was rejected by the input validator. */
+        INVALID,
+        /** The solver threw an exception. */
+        ERROR
+    }
+
+    private final long index;
+    private final String puzzle;
+    private final String solution;
+    private final Status status;
+    private final long nanos;
+
+    /**
+     * Creates a result.
+     *
+     * @param index    Position of the puzzle in the input, starting at 0.
+     * @param puzzle   The puzzle as given.
+     * @param solution The solved grid in input format, or {@code null}.
+     * @param status   How the solve ended.
+     * @param nanos    Wall time spent solving on the worker thread.
+     */
+    public BatchResult(long index, String puzzle, String solution, Status status, long nanos) {
+        this.index = index;
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.status = status;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return The position of the puzzle in the input, starting at 0.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The puzzle string that was solved.
+     */
+    public String getPuzzle() {
+        return puzzle;
+    }
+
+    /**
+     * @return The solution in the input format of the puzzle, or {@code null} if
+     *         the puzzle was not solved.
+     */
+    public String getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return How the solve ended.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return The wall time of the solve in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,226 @@
+package sudoku.batch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import sudoku.common.InputValidator;
+import sudoku.io.PuzzleSource;
+import sudoku.model.Sudoku;
+import sudoku.solver.Solver;
+
+/**
+ * Solves many puzzles in parallel on a work-stealing {@link ForkJoinPool}.
+ * <p>
+ * Solvers keep mutable search state, so every worker thread gets its own
+ * instance from the supplied factory. Input is consumed in chunks of
+ * {@value #CHUNK_SIZE} puzzles; each chunk is split recursively into small
+ * ranges that idle workers steal. Results are delivered either in input order
+ * or as soon as each puzzle completes, and memory stays bounded by one chunk
+ * however long the input is.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #solve}: O(m * S / p), m puzzles, S the cost of one solve and p the
+ * parallelism, plus O(m) to deliver the results.
+ */
+public class BatchSolver implements AutoCloseable {
+    /** Number of puzzles read from the input before the workers start on them. */
+    private static final int CHUNK_SIZE = 4096;
+
+    /** Ranges at or below this size are solved directly instead of split. */
+    private static final int LEAF_SIZE = 8;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Solver> solvers;
+
+    /**
+     * Creates a batch solver using every available core.
+     *
+     * @param solverFactory Creates one solver instance per worker thread.
+     */
+    public BatchSolver(Supplier<? extends Solver> solverFactory) {
+        this(solverFactory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a batch solver with the given number of worker threads.
+     *
+     * @param solverFactory Creates one solver instance per worker thread.
+     * @param parallelism   Number of worker threads.
+     * @throws IllegalArgumentException if parallelism is not positive.
+     */
+    public BatchSolver(Supplier<? extends Solver> solverFactory, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.solvers = ThreadLocal.withInitial(solverFactory::get);
+    }
+
+    /**
+     * Solves every puzzle and returns the results in input order.
+     *
+     * @param puzzles Puzzles in the input format, of any supported size.
+     * @return One result per puzzle, in the same order.
+     */
+    public List<BatchResult> solveAll(Iterable<String> puzzles) {
+        List<BatchResult> results = new ArrayList<>();
+        solve(puzzles, true, results::add);
+        return results;
+    }
+
+    /**
+     * Solves every puzzle of a stream and returns the results in input order.
+     *
+     * @param puzzles Puzzles in the input format, of any supported size.
+     * @return One result per puzzle, in the same order.
+     */
+    public List<BatchResult> solveAll(Stream<String> puzzles) {
+        return solveAll((Iterable<String>) puzzles::iterator);
+    }
+
+    /**
+     * Solves every remaining puzzle of a corpus, text or binary, and passes
+     * each result to {@code sink}. See {@link #solve(Iterable, boolean, Consumer)}.
+     *
+     * @param source  The corpus, read from its current position.
+     * @param ordered Whether results must follow the input order.
+     * @param sink    Receives every result.
+     * @throws java.io.UncheckedIOException if the corpus cannot be read.
+     */
+    public void solve(PuzzleSource source, boolean ordered, Consumer<BatchResult> sink) {
+        solve(source.inputStrings(), ordered, sink);
+    }
+
+    /**
+     * Solves every puzzle and passes each result to {@code sink}.
+     * <p>
+     * With {@code ordered} set, results arrive in input order once their chunk
+     * is finished. Otherwise each result is delivered as soon as its puzzle
+     * completes. The sink is never called concurrently.
+     * </p>
+     *
+     * @param puzzles Puzzles in the input format, of any supported size.
+     * @param ordered Whether results must follow the input order.
+     * @param sink    Receives every result.
+     */
+    public void solve(Iterable<String> puzzles, boolean ordered, Consumer<BatchResult> sink) {
+        Iterator<String> it = puzzles.iterator();
+        String[] chunk = new String[CHUNK_SIZE];
+        BatchResult[] results = new BatchResult[CHUNK_SIZE];
+        Consumer<BatchResult> onComplete = ordered ? null : synchronizedSink(sink);
+        long base = 0;
+
+        while (it.hasNext()) {
+            int count = 0;
+            while (count < CHUNK_SIZE && it.hasNext()) {
+                chunk[count++] = it.next();
+            }
+
+            pool.invoke(new SolveRange(chunk, results, base, 0, count, onComplete));
+
+            if (ordered) {
+                for (int i = 0; i < count; i++) {
+                    sink.accept(results[i]);
+                }
+            }
+            base += count;
+        }
+    }
+
+    /**
+     * Stops the worker threads. Puzzles already submitted are finished first.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static Consumer<BatchResult> synchronizedSink(Consumer<BatchResult> sink) {
+        Object lock = new Object();
+        return result -> {
+            synchronized (lock) {
+                sink.accept(result);
+            }
+        };
+    }
+
+    /**
+     * Solves one puzzle with the calling worker's own solver.
+     *
+     * @param index  Position of the puzzle in the input.
+     * @param puzzle The puzzle string.
+     * @return The result of the solve.
+     */
+    private BatchResult solveOne(long index, String puzzle) {
+        int size;
+        try {
+            size = InputValidator.validateInput(puzzle);
+        } catch (IllegalArgumentException e) {
+            return new BatchResult(index, puzzle, null, BatchResult.Status.INVALID, 0L);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Solver solver = solvers.get();
+            Sudoku sudoku = new Sudoku(size);
+            sudoku.read(puzzle);
+            solver.setSudoku(sudoku);
+
+            boolean solved = solver.solve() && sudoku.isSolved();
+            long nanos = System.nanoTime() - start;
+            return solved
+                    ? new BatchResult(index, puzzle, sudoku.toInputString(), BatchResult.Status.SOLVED, nanos)
+                    : new BatchResult(index, puzzle, null, BatchResult.Status.UNSOLVED, nanos);
+        } catch (Exception e) {
+            return new BatchResult(index, puzzle, null, BatchResult.Status.ERROR, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Fork-join task over a range of the current chunk. Large ranges are split
+     * in half so that idle workers can steal the other half.
+     */
+    private class SolveRange extends RecursiveAction {
+        private final String[] puzzles;
+        private final BatchResult[] results;
+        private final long base;
+        private final int from;
+        private final int to;
+        private final Consumer<BatchResult> onComplete;
+
+        SolveRange(String[] puzzles, BatchResult[] results, long base, int from, int to,
+                Consumer<BatchResult> onComplete) {
+            this.puzzles = puzzles;
+            this.results = results;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+            this.onComplete = onComplete;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    BatchResult result = solveOne(base + i, puzzles[i]);
+                    if (onComplete != null)
+                        onComplete.accept(result);
+                    else
+                        results[i] = result;
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new SolveRange(puzzles, results, base, from, mid, onComplete),
+                    new SolveRange(puzzles, results, base, mid, to, onComplete));
+        }
+    }
+}
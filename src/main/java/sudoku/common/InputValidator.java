@@ -1,14 +1,23 @@
 package sudoku.common;
 
+import sudoku.model.SudokuConstant;
+
 public class InputValidator {
 
     /**
      * Check Sudoku input and report detailed errors if invalid.
+     * <p>
+     * The input holds one symbol per cell, row by row: 81 for a 9x9 grid, 256
+     * for 16x16, 625 for 25x25 and 16 for 4x4. Digits 1-9 and then letters
+     * A-P (in either case) encode the values, and {@code 0} or {@code .} an
+     * empty cell.
+     * </p>
      *
      * @param input String to check
+     * @return The side length of the grid: 9, 16 or 25, or 4.
      * @throws IllegalArgumentException if input is invalid
      */
-    public static void validateInput(String input) {
+    public static int validateInput(String input) {
         if (input == null) {
             throw new IllegalArgumentException("Input is null.");
         }
@@ -17,17 +26,44 @@ public class InputValidator {
             throw new IllegalArgumentException("Input is empty. Expected 81 characters.");
         }
 
-        if (input.length() != 81) {
+        int n = sideLength(input.length());
+        if (n < 0) {
             throw new IllegalArgumentException(
-                    "Invalid input length: got " + input.length() + ", expected 81.");
+                    "Invalid input length: got " + input.length() + ", expected 16, 81, 256 or 625.");
         }
 
         for (int i = 0; i < input.length(); i++) {
             char c = input.charAt(i);
-            if (c < '0' || c > '9') {
+            int value = SudokuConstant.valueOf(c);
+            if (value < 0 || value > n) {
                 throw new IllegalArgumentException(
-                        "Invalid character at position " + i + ": '" + c + "'. Only digits 0-9 are allowed.");
+                        "Invalid character at position " + i + ": '" + c + "'. Only "
+                                + allowed(n) + " are allowed.");
             }
         }
+        return n;
+    }
+
+    /**
+     * Returns the side length of a grid with the given number of cells.
+     *
+     * @param cells The number of characters of the input.
+     * @return The side length, or -1 if no supported grid has that many cells.
+     */
+    private static int sideLength(int cells) {
+        for (int box = 2; box <= SudokuConstant.MAX_BOX_SIZE; box++) {
+            if (box * box * box * box == cells)
+                return box * box;
+        }
+        return -1;
+    }
+
+    /**
+     * Describes the symbols accepted for a grid size, for error messages.
+     */
+    private static String allowed(int n) {
+        if (n <= 9)
+            return "digits 0-" + n;
+        return "digits 0-9 and letters A-" + SudokuConstant.symbolOf(n);
     }
 }
@@ -0,0 +1,115 @@
+package sudoku.common;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Wall time, CPU time and allocated bytes of a task, measured on the thread
+ * that runs it.
+ * <p>
+ * The counters come from the JVM's per-thread accounting in
+ * {@link com.sun.management.ThreadMXBean}, so they are exact for the calling
+ * thread and unaffected by other threads or by the garbage collector; no GC is
+ * forced. Work the task hands to other threads, such as the pool of
+ * {@link sudoku.solver.ParallelDancingLinks}, is only included in the wall
+ * time. A counter the JVM does not support is reported as {@code -1}.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #measure(Runnable)}: O(1) on top of the task.
+ */
+public final class ThreadMeasurement {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+
+    private ThreadMeasurement(long wallNanos, long cpuNanos, long allocatedBytes) {
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Runs a task on the calling thread and measures it.
+     *
+     * @param task The work to measure.
+     * @return The cost of the task.
+     */
+    public static ThreadMeasurement measure(Runnable task) {
+        long cpuBefore = cpuTime();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        task.run();
+
+        long wall = System.nanoTime() - start;
+        long allocated = allocatedBytes();
+        long cpu = cpuTime();
+        return new ThreadMeasurement(wall,
+                cpuBefore < 0 ? -1 : cpu - cpuBefore,
+                allocatedBefore < 0 ? -1 : allocated - allocatedBefore);
+    }
+
+    /**
+     * @return The CPU time used by the calling thread so far, or -1.
+     */
+    private static long cpuTime() {
+        return THREADS != null && THREADS.isCurrentThreadCpuTimeSupported()
+                ? THREADS.getCurrentThreadCpuTime()
+                : -1;
+    }
+
+    /**
+     * @return The bytes allocated by the calling thread so far, or -1.
+     */
+    private static long allocatedBytes() {
+        return THREADS != null && THREADS.isThreadAllocatedMemorySupported()
+                ? THREADS.getCurrentThreadAllocatedBytes()
+                : -1;
+    }
+
+    /**
+     * Returns the extended thread bean with CPU time and allocation accounting
+     * switched on, or {@code null} on a JVM that does not provide it.
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean))
+            return null;
+        try {
+            if (bean.isThreadCpuTimeSupported())
+                bean.setThreadCpuTimeEnabled(true);
+            if (bean.isThreadAllocatedMemorySupported())
+                bean.setThreadAllocatedMemoryEnabled(true);
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Fall back to whatever is already enabled
+        }
+        return bean;
+    }
+
+    /**
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return The CPU time of the measuring thread in nanoseconds, or -1.
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * @return The bytes allocated by the measuring thread, or -1.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "wall=" + wallNanos + "ns, cpu=" + cpuNanos + "ns, allocated=" + allocatedBytes + "B";
+    }
+}
@@ -0,0 +1,254 @@
+package sudoku.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import sudoku.io.BinaryCorpusWriter;
+import sudoku.io.PuzzleSource;
+
+/**
+ * Generates puzzles in parallel on a work-stealing {@link ForkJoinPool} and
+ * streams them into a corpus.
+ * <p>
+ * Every worker thread has its own {@link PuzzleGenerator}. Puzzles are made in
+ * chunks of {@value #CHUNK_SIZE}, each split recursively into small ranges
+ * that idle workers steal, and delivered in order once their chunk is done,
+ * so memory stays bounded by one chunk however many puzzles are requested.
+ * Puzzle {@code i} is generated from a random state derived from the seed and
+ * {@code i} alone, so a seed gives the same corpus whatever the number of
+ * threads.
+ * </p>
+ * <p>
+ * Usage: {@code CorpusGenerator <count> <output> [--level LEVEL] [--clues N]
+ * [--threads N] [--seed N] [--binary [--solutions]]}. Without
+ * {@code --binary} the output is a text corpus of {@code LEVEL:digits} lines,
+ * as in {@code input.txt}; with it, the packed
+ * {@link sudoku.io.BinaryFormat}, with solutions if requested.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #generate}: O(m * G / p), m puzzles, G the cost of generating one
+ * and p the parallelism, plus O(m) to deliver them.
+ */
+public class CorpusGenerator implements AutoCloseable {
+    /** Number of puzzles generated before any is delivered. */
+    private static final int CHUNK_SIZE = 1024;
+
+    /** Ranges at or below this size are generated directly instead of split. */
+    private static final int LEAF_SIZE = 4;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<PuzzleGenerator> generators;
+    private final long base;
+
+    /**
+     * Creates a corpus generator using every available core.
+     *
+     * @param difficulty The grade of every puzzle.
+     * @param minClues   The fewest givens to keep, 0 for as few as possible.
+     * @param seed       The seed of the corpus.
+     */
+    public CorpusGenerator(Difficulty difficulty, int minClues, long seed) {
+        this(difficulty, minClues, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a corpus generator with the given number of worker threads.
+     *
+     * @param difficulty  The grade of every puzzle.
+     * @param minClues    The fewest givens to keep, 0 for as few as possible.
+     * @param seed        The seed of the corpus.
+     * @param parallelism Number of worker threads.
+     * @throws IllegalArgumentException if parallelism is not positive or the
+     *                                  clue count is not 0-81.
+     */
+    public CorpusGenerator(Difficulty difficulty, int minClues, long seed, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (minClues < 0 || minClues > PuzzleSource.CELLS) {
+            throw new IllegalArgumentException("Invalid clue count: " + minClues);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.generators = ThreadLocal.withInitial(() -> new PuzzleGenerator(difficulty, minClues));
+        this.base = new SplittableRandom(seed).nextLong();
+    }
+
+    /**
+     * Generates puzzles and returns them in order.
+     *
+     * @param count The number of puzzles.
+     * @return The puzzles.
+     */
+    public List<GeneratedPuzzle> generateAll(int count) {
+        List<GeneratedPuzzle> puzzles = new ArrayList<>(count);
+        generate(count, puzzles::add);
+        return puzzles;
+    }
+
+    /**
+     * Generates puzzles and passes each one to {@code sink}, in order. The
+     * sink is never called concurrently.
+     *
+     * @param count The number of puzzles.
+     * @param sink  Receives every puzzle.
+     * @throws IllegalStateException if the target cannot be met; see
+     *                               {@link PuzzleGenerator#generate}.
+     */
+    public void generate(long count, Consumer<GeneratedPuzzle> sink) {
+        GeneratedPuzzle[] chunk = new GeneratedPuzzle[CHUNK_SIZE];
+        for (long start = 0; start < count; start += CHUNK_SIZE) {
+            int size = (int) Math.min(CHUNK_SIZE, count - start);
+            pool.invoke(new GenerateRange(chunk, start, 0, size));
+            for (int i = 0; i < size; i++) {
+                sink.accept(chunk[i]);
+                chunk[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads. Puzzles already submitted are finished first.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Fork-join task over a range of the current chunk. Large ranges are split
+     * in half so that idle workers can steal the other half.
+     */
+    private class GenerateRange extends RecursiveAction {
+        private final GeneratedPuzzle[] chunk;
+        private final long start;
+        private final int from;
+        private final int to;
+
+        GenerateRange(GeneratedPuzzle[] chunk, long start, int from, int to) {
+            this.chunk = chunk;
+            this.start = start;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                PuzzleGenerator generator = generators.get();
+                for (int i = from; i < to; i++)
+                    chunk[i] = generator.generate(new SplittableRandom(base + start + i));
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new GenerateRange(chunk, start, from, mid), new GenerateRange(chunk, start, mid, to));
+        }
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args The count, the output file and the options described above.
+     * @throws IOException if the output cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2)
+            usage();
+
+        long count = 0;
+        Path output = Paths.get(args[1]);
+        Difficulty difficulty = Difficulty.EVIL;
+        int clues = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        boolean binary = false, solutions = false;
+        try {
+            count = Long.parseLong(args[0]);
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--level":
+                        difficulty = Difficulty.valueOf(args[++i]);
+                        break;
+                    case "--clues":
+                        clues = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--binary":
+                        binary = true;
+                        break;
+                    case "--solutions":
+                        solutions = true;
+                        break;
+                    default:
+                        usage();
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            usage();
+        }
+        if (count < 0 || (solutions && !binary))
+            usage();
+
+        long start = System.nanoTime();
+        try (CorpusGenerator generator = new CorpusGenerator(difficulty, clues, seed, threads)) {
+            if (binary) {
+                try (BinaryCorpusWriter writer = new BinaryCorpusWriter(output, true, solutions)) {
+                    generator.generate(count, puzzle -> {
+                        try {
+                            writer.write(puzzle.getCells(), puzzle.getDifficulty().name(), puzzle.getSolution());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            } else {
+                try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.US_ASCII)) {
+                    generator.generate(count, puzzle -> {
+                        try {
+                            writer.write(puzzle.getDifficulty().name());
+                            writer.write(':');
+                            writer.write(puzzle.toInputString());
+                            writer.newLine();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IllegalStateException e) {
+            // Fork-join rethrows a copy of the worker's exception that wraps the original
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Error: " + cause.getMessage());
+            System.exit(1);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d %s puzzles to %s in %.2f s (%.0f per second)%n",
+                count, difficulty, output, seconds, count / seconds);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: CorpusGenerator <count> <output> [--level EASY|MEDIUM|HARD|EVIL] [--clues N]"
+                + " [--threads N] [--seed N] [--binary [--solutions]]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,16 @@
+package sudoku.generator;
+
+/**
+ * Difficulty levels of generated puzzles, graded by the techniques needed to
+ * solve them. The names are the level labels of the corpus formats.
+ */
+public enum Difficulty {
+    /** Solved by naked and hidden singles alone. */
+    EASY,
+    /** Solved by logic, but only once locked candidates are used. */
+    MEDIUM,
+    /** Needs a short search after all the logic has been applied. */
+    HARD,
+    /** Needs a longer search after all the logic has been applied. */
+    EVIL
+}
@@ -0,0 +1,82 @@
+package sudoku.generator;
+
+import sudoku.io.PuzzleSource;
+
+/**
+ * A puzzle made by {@link PuzzleGenerator}, with its unique solution.
+ * Instances are immutable and may be handed between threads freely.
+ */
+public class GeneratedPuzzle {
+    private final byte[] cells;
+    private final byte[] solution;
+    private final Difficulty difficulty;
+    private final int clues;
+
+    /**
+     * Creates a puzzle. The arrays are not copied.
+     *
+     * @param cells      The 81 cells, 0 for empty.
+     * @param solution   The 81 cells of the solution.
+     * @param difficulty The grade of the puzzle.
+     */
+    GeneratedPuzzle(byte[] cells, byte[] solution, Difficulty difficulty) {
+        this.cells = cells;
+        this.solution = solution;
+        this.difficulty = difficulty;
+        int count = 0;
+        for (byte cell : cells) {
+            if (cell != 0)
+                count++;
+        }
+        this.clues = count;
+    }
+
+    /**
+     * @return A copy of the 81 cells, 0 for empty.
+     */
+    public byte[] getCells() {
+        return cells.clone();
+    }
+
+    /**
+     * @return A copy of the 81 cells of the solution.
+     */
+    public byte[] getSolution() {
+        return solution.clone();
+    }
+
+    /**
+     * @return The grade of the puzzle.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @return The number of given cells.
+     */
+    public int getClues() {
+        return clues;
+    }
+
+    /**
+     * @return The puzzle in the 81-digit input format.
+     */
+    public String toInputString() {
+        return digits(cells);
+    }
+
+    /**
+     * @return The solution in the 81-digit input format.
+     */
+    public String getSolutionString() {
+        return digits(solution);
+    }
+
+    private static String digits(byte[] grid) {
+        char[] chars = new char[PuzzleSource.CELLS];
+        for (int i = 0; i < PuzzleSource.CELLS; i++)
+            chars[i] = (char) ('0' + grid[i]);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,279 @@
+package sudoku.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import sudoku.io.PuzzleSource;
+import sudoku.solver.Propagator;
+import sudoku.solver.SearchBudget;
+import sudoku.solver.SearchControl;
+import sudoku.solver.dancinglinks.ArrayDLX;
+
+/**
+ * Generates 9x9 puzzles with a unique solution and a target difficulty.
+ * <p>
+ * A random complete grid is made by filling the three diagonal boxes, which
+ * never constrain each other, with random permutations and completing the
+ * rest with {@link ArrayDLX}. Clues are then removed one at a time in a random
+ * order. A removal is kept only if the puzzle is still graded at or below the
+ * target difficulty, which also proves that its solution is still unique.
+ * The checks run from cheapest to dearest:
+ * </p>
+ * <ul>
+ * <li>a cell whose value the remaining givens force, as a naked or hidden
+ * single, can always go: propagation places it first and then reaches the
+ * same grid as before, so the grade is unchanged. Most early removals end
+ * here after a few mask operations;</li>
+ * <li>if the {@link Propagator} fills the grid, every placement followed from
+ * the givens, so the solution is unique and the puzzle is EASY (singles
+ * only) or MEDIUM (locked candidates needed) - no search at all;</li>
+ * <li>otherwise {@link ArrayDLX} counts the solutions of the propagated grid
+ * up to 2, and the number of search nodes separates HARD from EVIL. A HARD
+ * target caps the search at {@link #EVIL_NODES}, so grids that are too hard
+ * are abandoned early, and an EVIL target only needs the count, so it skips
+ * the propagation.</li>
+ * </ul>
+ * <p>
+ * Removal stops at the minimum clue count or when no clue can be removed. The
+ * result is returned if its grade is the target; otherwise a new grid is
+ * tried. The same random state always gives the same puzzle. An instance is
+ * reusable but not thread-safe; {@link CorpusGenerator} gives each worker its
+ * own.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #generate(SplittableRandom)}: O(a * 81 * G) for a attempts, with G
+ * the cost of one grade: O(1) propagation work on a 9x9 grid for EASY and
+ * MEDIUM, plus a DLX search for HARD and EVIL.
+ */
+public class PuzzleGenerator {
+    /**
+     * Search nodes, after propagation, from which a puzzle is graded EVIL
+     * rather than HARD. It lies between the medians of the puzzles labelled
+     * HARD (47) and EVIL (66) in {@code input.txt} that need a search.
+     */
+    static final long EVIL_NODES = 60;
+
+    /** Complete grids tried for one puzzle before giving up. */
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private static final int N = 9;
+
+    /** Mask of the values 1-9 in the {@code 1 << value} layout of the given masks. */
+    private static final int ALL = 0x3FE;
+
+    private final Difficulty difficulty;
+    private final int minClues;
+
+    private final Propagator singles = new Propagator(false);
+    private final Propagator logic = new Propagator();
+    private final ArrayDLX dlx = new ArrayDLX();
+    private final SearchControl control = new SearchControl();
+    private final SearchBudget hardBudget = SearchBudget.nodes(EVIL_NODES - 1);
+
+    private final int[][] solution = new int[N][N];
+    private final int[][] puzzle = new int[N][N];
+    private final int[][] work = new int[N][N];
+    private final int[] order = new int[PuzzleSource.CELLS];
+    private final int[] values = new int[N];
+
+    /** Values given in each row, column and box of {@link #puzzle}, one bit per value. */
+    private final int[] rowGivens = new int[N];
+    private final int[] colGivens = new int[N];
+    private final int[] boxGivens = new int[N];
+
+    /**
+     * Creates a generator.
+     *
+     * @param difficulty The grade every puzzle must have.
+     * @param minClues   The fewest givens to keep; 0 removes clues until none
+     *                   can be removed.
+     * @throws IllegalArgumentException if the clue count is not 0-81.
+     */
+    public PuzzleGenerator(Difficulty difficulty, int minClues) {
+        if (minClues < 0 || minClues > PuzzleSource.CELLS)
+            throw new IllegalArgumentException("Invalid clue count: " + minClues);
+        this.difficulty = difficulty;
+        this.minClues = minClues;
+        dlx.setControl(control);
+    }
+
+    /**
+     * @return The grade every puzzle has.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * @return The fewest givens a puzzle keeps.
+     */
+    public int getMinClues() {
+        return minClues;
+    }
+
+    /**
+     * Generates one puzzle.
+     *
+     * @param random The source of the grid and the removal order.
+     * @return A puzzle with a unique solution, the target difficulty and at
+     *         least the minimum number of clues.
+     * @throws IllegalStateException if no such puzzle was found within
+     *                               {@value #MAX_ATTEMPTS} grids, which
+     *                               happens when the clue count is too high
+     *                               for the difficulty.
+     */
+    public GeneratedPuzzle generate(SplittableRandom random) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            fillGrid(random);
+            for (int r = 0; r < N; r++)
+                System.arraycopy(solution[r], 0, puzzle[r], 0, N);
+
+            removeClues(random);
+            if (grade(true) == difficulty)
+                return new GeneratedPuzzle(toBytes(puzzle), toBytes(solution), difficulty);
+        }
+        throw new IllegalStateException("No " + difficulty + " puzzle with at least " + minClues
+                + " clues after " + MAX_ATTEMPTS + " grids");
+    }
+
+    /**
+     * Fills {@link #solution} with a random complete grid.
+     */
+    private void fillGrid(SplittableRandom random) {
+        for (int[] row : solution)
+            Arrays.fill(row, 0);
+        for (int b = 0; b < 3; b++) {
+            shuffleValues(random);
+            for (int i = 0; i < N; i++)
+                solution[b * 3 + i / 3][b * 3 + i % 3] = values[i];
+        }
+        control.start(SearchBudget.UNLIMITED);
+        if (!dlx.solve(solution))
+            throw new IllegalStateException("Diagonal boxes did not complete to a grid");
+    }
+
+    /**
+     * Removes clues from {@link #puzzle} in a random order while its grade
+     * stays at or below the target.
+     */
+    private void removeClues(SplittableRandom random) {
+        for (int i = 0; i < order.length; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+
+        Arrays.fill(rowGivens, ALL);
+        Arrays.fill(colGivens, ALL);
+        Arrays.fill(boxGivens, ALL);
+
+        int clues = PuzzleSource.CELLS;
+        for (int cell : order) {
+            if (clues <= minClues)
+                break;
+            int r = cell / N, c = cell % N, b = r / 3 * 3 + c / 3;
+            int value = puzzle[r][c];
+            int bit = 1 << value;
+            puzzle[r][c] = 0;
+            rowGivens[r] ^= bit;
+            colGivens[c] ^= bit;
+            boxGivens[b] ^= bit;
+
+            // A cell the givens force is placed first by propagation, which
+            // then reaches the same grid as before: the grade is unchanged
+            if (isForced(r, c, bit) || grade(false) != null) {
+                clues--;
+            } else {
+                puzzle[r][c] = value;
+                rowGivens[r] |= bit;
+                colGivens[c] |= bit;
+                boxGivens[b] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Grades {@link #puzzle}, giving up as soon as it is known to be harder
+     * than the target.
+     *
+     * @param exact {@code false} to skip the passes that cannot reject a
+     *              removal: the returned grade is then only an upper bound.
+     * @return The grade, or {@code null} if the puzzle is harder than the
+     *         target or has more than one solution.
+     */
+    private Difficulty grade(boolean exact) {
+        for (int r = 0; r < N; r++)
+            System.arraycopy(puzzle[r], 0, work[r], 0, N);
+
+        if (!exact && difficulty == Difficulty.EVIL) {
+            // Every unique puzzle is at most EVIL, so only uniqueness matters
+            control.start(SearchBudget.UNLIMITED);
+            return dlx.countSolutions(work, 2) == 1 ? Difficulty.EVIL : null;
+        }
+
+        // The puzzle was made from a solution, so propagation cannot fail
+        if (exact || difficulty == Difficulty.EASY) {
+            singles.propagate(work);
+            if (singles.isComplete())
+                return Difficulty.EASY;
+            if (difficulty == Difficulty.EASY)
+                return null;
+        }
+
+        logic.propagate(work);
+        if (logic.isComplete())
+            return Difficulty.MEDIUM;
+        if (difficulty == Difficulty.MEDIUM)
+            return null;
+
+        control.start(difficulty == Difficulty.HARD ? hardBudget : SearchBudget.UNLIMITED);
+        if (dlx.countSolutions(work, 2) != 1 || control.isStopped())
+            return null;
+        return control.getNodes() < EVIL_NODES ? Difficulty.HARD : Difficulty.EVIL;
+    }
+
+    /**
+     * Checks whether the givens alone determine the value of an empty cell:
+     * they exclude every other value from it (naked single), or exclude the
+     * value from every other empty cell of its row, column or box (hidden
+     * single).
+     *
+     * @param bit The value of the cell, as {@code 1 << value}.
+     */
+    private boolean isForced(int row, int col, int bit) {
+        int top = row - row % 3, left = col - col % 3;
+        if ((rowGivens[row] | colGivens[col] | boxGivens[top + col / 3]) == (ALL ^ bit))
+            return true;
+
+        boolean inRow = true, inCol = true, inBox = true;
+        for (int i = 0; i < N; i++) {
+            if (inRow && i != col && puzzle[row][i] == 0
+                    && ((colGivens[i] | boxGivens[top + i / 3]) & bit) == 0)
+                inRow = false;
+            if (inCol && i != row && puzzle[i][col] == 0
+                    && ((rowGivens[i] | boxGivens[i - i % 3 + col / 3]) & bit) == 0)
+                inCol = false;
+            int r = top + i / 3, c = left + i % 3;
+            if (inBox && (r != row || c != col) && puzzle[r][c] == 0
+                    && ((rowGivens[r] | colGivens[c]) & bit) == 0)
+                inBox = false;
+        }
+        return inRow || inCol || inBox;
+    }
+
+    private void shuffleValues(SplittableRandom random) {
+        for (int i = 0; i < N; i++) {
+            int j = random.nextInt(i + 1);
+            values[i] = values[j];
+            values[j] = i + 1;
+        }
+    }
+
+    private static byte[] toBytes(int[][] grid) {
+        byte[] cells = new byte[PuzzleSource.CELLS];
+        for (int i = 0; i < PuzzleSource.CELLS; i++)
+            cells[i] = (byte) grid[i / N][i % N];
+        return cells;
+    }
+}
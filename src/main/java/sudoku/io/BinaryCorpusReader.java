@@ -0,0 +1,194 @@
+package sudoku.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a corpus in the {@link BinaryFormat} from a memory-mapped file.
+ * <p>
+ * Records have a fixed size, so any puzzle can be read by its index in O(1)
+ * with {@link #read(long, byte[])}. The file is mapped in segments that each
+ * hold a whole number of records, which lifts the 2 GB limit of a single
+ * mapping. Random access only uses absolute reads, so several threads may
+ * call {@link #read}, {@link #readSolution} and {@link #level(long)} at once.
+ * The sequential {@link PuzzleSource} methods keep a cursor and are for one
+ * thread.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #read(long, byte[])}: O(1).
+ */
+public class BinaryCorpusReader implements PuzzleSource {
+    /** Upper bound on the size of one mapped segment. */
+    private static final int MAX_SEGMENT = 1 << 30;
+
+    private final FileChannel channel;
+    private final int flags;
+    private final int recordSize;
+    private final long count;
+    private final long recordsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private final byte[] record;
+    private final byte[] cells = new byte[CELLS];
+    private long cursor = -1;
+    private String level;
+
+    /**
+     * Opens a binary corpus.
+     *
+     * @param path The file to read.
+     * @throws IOException if the file cannot be read, is not a binary corpus,
+     *                     or is shorter than its header says.
+     */
+    public BinaryCorpusReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(BinaryFormat.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // read the whole header
+            }
+            if (header.hasRemaining() || !BinaryFormat.isMagic(header.array()))
+                throw new IOException("Not a binary corpus: " + path);
+            if (header.get(4) != BinaryFormat.VERSION)
+                throw new IOException("Unsupported binary corpus version " + header.get(4) + ": " + path);
+
+            this.flags = header.get(5);
+            this.recordSize = BinaryFormat.recordSize(flags);
+            this.count = header.getLong(8);
+            if (count < 0 || channel.size() < BinaryFormat.HEADER_SIZE + count * recordSize)
+                throw new IOException("Truncated binary corpus: " + path);
+
+            this.recordsPerSegment = MAX_SEGMENT / recordSize;
+            int segmentCount = (int) ((count + recordsPerSegment - 1) / recordsPerSegment);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long first = s * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, count - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        BinaryFormat.HEADER_SIZE + first * recordSize, records * recordSize);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.record = new byte[recordSize];
+    }
+
+    /**
+     * @return The number of puzzles in the corpus.
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * @return Whether the records store a difficulty byte.
+     */
+    public boolean hasLevels() {
+        return (flags & BinaryFormat.HAS_LEVEL) != 0;
+    }
+
+    /**
+     * @return Whether the records store the solution.
+     */
+    public boolean hasSolutions() {
+        return (flags & BinaryFormat.HAS_SOLUTION) != 0;
+    }
+
+    /**
+     * Reads the puzzle with the given index.
+     *
+     * @param index The index of the puzzle, from 0.
+     * @param out   Receives the 81 cells.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void read(long index, byte[] out) {
+        unpackAt(index, hasLevels() ? 1 : 0, out);
+    }
+
+    /**
+     * Reads the stored solution of the puzzle with the given index.
+     *
+     * @param index The index of the puzzle, from 0.
+     * @param out   Receives the 81 cells of the solution.
+     * @throws IllegalStateException     if the corpus has no solutions.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void readSolution(long index, byte[] out) {
+        if (!hasSolutions())
+            throw new IllegalStateException("This corpus stores no solutions");
+        unpackAt(index, (hasLevels() ? 1 : 0) + BinaryFormat.PACKED_SIZE, out);
+    }
+
+    /**
+     * Returns the level label of the puzzle with the given index.
+     *
+     * @param index The index of the puzzle, from 0.
+     * @return The label, or {@code null} if the corpus or record has none.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public String level(long index) {
+        if (!hasLevels())
+            return null;
+        return BinaryFormat.levelName(segment(index).get(offset(index)));
+    }
+
+    private void unpackAt(long index, int skip, byte[] out) {
+        BinaryFormat.unpack(segment(index), offset(index) + skip, out);
+    }
+
+    private MappedByteBuffer segment(long index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    private int offset(long index) {
+        return (int) (index % recordsPerSegment) * recordSize;
+    }
+
+    @Override
+    public boolean next() {
+        if (cursor + 1 >= count)
+            return false;
+        cursor++;
+        segment(cursor).get(offset(cursor), record, 0, recordSize);
+        int off = 0;
+        level = hasLevels() ? BinaryFormat.levelName(record[off++]) : null;
+        BinaryFormat.unpack(record, off, cells);
+        return true;
+    }
+
+    @Override
+    public byte[] cells() {
+        return cells;
+    }
+
+    @Override
+    public String level() {
+        return level;
+    }
+
+    /**
+     * @return The index of the current puzzle of the sequential cursor.
+     */
+    public long position() {
+        return cursor;
+    }
+
+    /**
+     * Closes the file. Mapped segments stay valid until they are garbage
+     * collected, but must no longer be read through this reader.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
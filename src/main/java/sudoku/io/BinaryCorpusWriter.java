@@ -0,0 +1,113 @@
+package sudoku.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a corpus in the {@link BinaryFormat}.
+ * <p>
+ * Records are buffered and written in large blocks. The header is written
+ * with a record count of 0 and completed by {@link #close()}, so a file that
+ * was not closed is recognisably incomplete.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #write}: O(1) amortised.
+ */
+public class BinaryCorpusWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 << 10;
+
+    private final FileChannel channel;
+    private final int flags;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] record;
+    private long count;
+
+    /**
+     * Creates or truncates a binary corpus file.
+     *
+     * @param path         The file to write.
+     * @param withLevel    Whether records store a difficulty byte.
+     * @param withSolution Whether records store the solution.
+     * @throws IOException if the file cannot be created.
+     */
+    public BinaryCorpusWriter(Path path, boolean withLevel, boolean withSolution) throws IOException {
+        this.flags = (withLevel ? BinaryFormat.HAS_LEVEL : 0) | (withSolution ? BinaryFormat.HAS_SOLUTION : 0);
+        this.record = new byte[BinaryFormat.recordSize(flags)];
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(0);
+        channel.position(BinaryFormat.HEADER_SIZE);
+    }
+
+    /**
+     * Appends one record.
+     *
+     * @param cells    The 81 cells of the puzzle, 0 for empty.
+     * @param level    The level label, or {@code null}. Ignored without levels.
+     * @param solution The 81 cells of the solution. Ignored without solutions,
+     *                 required with them.
+     * @throws IOException              if the file cannot be written.
+     * @throws IllegalArgumentException if the level is unknown or the
+     *                                  solution is missing.
+     */
+    public void write(byte[] cells, String level, byte[] solution) throws IOException {
+        int off = 0;
+        if ((flags & BinaryFormat.HAS_LEVEL) != 0)
+            record[off++] = BinaryFormat.levelCode(level);
+        BinaryFormat.pack(cells, record, off);
+        off += BinaryFormat.PACKED_SIZE;
+        if ((flags & BinaryFormat.HAS_SOLUTION) != 0) {
+            if (solution == null)
+                throw new IllegalArgumentException("This corpus stores solutions");
+            BinaryFormat.pack(solution, record, off);
+        }
+
+        if (buffer.remaining() < record.length)
+            flush();
+        buffer.put(record);
+        count++;
+    }
+
+    /**
+     * @return The number of records written so far.
+     */
+    public long count() {
+        return count;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void writeHeader(long records) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BinaryFormat.HEADER_SIZE);
+        header.put(BinaryFormat.MAGIC).put(BinaryFormat.VERSION).put((byte) flags).putShort((short) 0)
+                .putLong(records).flip();
+        long at = 0;
+        while (header.hasRemaining())
+            at += channel.write(header, at);
+    }
+
+    /**
+     * Writes the buffered records and the final record count, then closes the
+     * file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            writeHeader(count);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package sudoku.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the packed binary corpus format.
+ * <p>
+ * A file starts with a {@value #HEADER_SIZE}-byte header:
+ * </p>
+ * <ul>
+ * <li>bytes 0-3: the magic {@code "SDKB"};</li>
+ * <li>byte 4: the format version, {@value #VERSION};</li>
+ * <li>byte 5: flags, {@link #HAS_LEVEL} and {@link #HAS_SOLUTION};</li>
+ * <li>bytes 6-7: reserved, 0;</li>
+ * <li>bytes 8-15: the number of records, big-endian.</li>
+ * </ul>
+ * <p>
+ * Fixed-size records follow, so record {@code i} starts at
+ * {@code HEADER_SIZE + i * recordSize} and can be read directly. A record
+ * holds an optional difficulty byte, the puzzle in {@value #PACKED_SIZE} bytes,
+ * and an optional solution in another {@value #PACKED_SIZE} bytes. A grid is
+ * packed at 4 bits per cell: byte {@code k} holds cell {@code 2k} in its high
+ * nibble and cell {@code 2k + 1} in its low nibble, and the low nibble of the
+ * last byte is 0.
+ * </p>
+ */
+public final class BinaryFormat {
+    /** First bytes of every binary corpus. */
+    static final byte[] MAGIC = { 'S', 'D', 'K', 'B' };
+
+    /** Current version of the format. */
+    static final byte VERSION = 1;
+
+    /** Size of the file header in bytes. */
+    public static final int HEADER_SIZE = 16;
+
+    /** Size of one packed 9x9 grid in bytes. */
+    public static final int PACKED_SIZE = (PuzzleSource.CELLS + 1) / 2;
+
+    /** Flag: every record starts with a difficulty byte. */
+    public static final int HAS_LEVEL = 1;
+
+    /** Flag: every record ends with the packed solution. */
+    public static final int HAS_SOLUTION = 2;
+
+    /** Level labels by difficulty code; code 0 means no label. */
+    private static final String[] LEVELS = { null, "EASY", "MEDIUM", "HARD", "EVIL" };
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Returns the size of one record.
+     *
+     * @param flags The file's flags.
+     * @return The record size in bytes.
+     */
+    public static int recordSize(int flags) {
+        return ((flags & HAS_LEVEL) != 0 ? 1 : 0)
+                + PACKED_SIZE
+                + ((flags & HAS_SOLUTION) != 0 ? PACKED_SIZE : 0);
+    }
+
+    /**
+     * Packs 81 cell values of 0-9 into {@value #PACKED_SIZE} bytes.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @param cells The cells, row by row.
+     * @param out   Receives the packed grid.
+     * @param off   Offset of the first packed byte in {@code out}.
+     */
+    public static void pack(byte[] cells, byte[] out, int off) {
+        for (int k = 0; k < PACKED_SIZE - 1; k++)
+            out[off + k] = (byte) (cells[2 * k] << 4 | cells[2 * k + 1]);
+        out[off + PACKED_SIZE - 1] = (byte) (cells[PuzzleSource.CELLS - 1] << 4);
+    }
+
+    /**
+     * Unpacks a grid written by {@link #pack}.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @param in    The packed bytes.
+     * @param off   Offset of the first packed byte in {@code in}.
+     * @param cells Receives the 81 cell values.
+     */
+    public static void unpack(byte[] in, int off, byte[] cells) {
+        for (int k = 0; k < PACKED_SIZE - 1; k++) {
+            int b = in[off + k];
+            cells[2 * k] = (byte) (b >> 4 & 0xF);
+            cells[2 * k + 1] = (byte) (b & 0xF);
+        }
+        cells[PuzzleSource.CELLS - 1] = (byte) (in[off + PACKED_SIZE - 1] >> 4 & 0xF);
+    }
+
+    /**
+     * Unpacks a grid from a buffer with absolute reads, leaving its position
+     * untouched.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @param in    The buffer holding the packed bytes.
+     * @param off   Index of the first packed byte in {@code in}.
+     * @param cells Receives the 81 cell values.
+     */
+    public static void unpack(ByteBuffer in, int off, byte[] cells) {
+        for (int k = 0; k < PACKED_SIZE - 1; k++) {
+            int b = in.get(off + k);
+            cells[2 * k] = (byte) (b >> 4 & 0xF);
+            cells[2 * k + 1] = (byte) (b & 0xF);
+        }
+        cells[PuzzleSource.CELLS - 1] = (byte) (in.get(off + PACKED_SIZE - 1) >> 4 & 0xF);
+    }
+
+    /**
+     * Returns the difficulty code of a level label.
+     *
+     * @param level The label, or {@code null}.
+     * @return The code, 0 for {@code null}.
+     * @throws IllegalArgumentException if the label has no code.
+     */
+    public static byte levelCode(String level) {
+        if (level == null)
+            return 0;
+        for (int code = 1; code < LEVELS.length; code++) {
+            if (LEVELS[code].equals(level))
+                return (byte) code;
+        }
+        throw new IllegalArgumentException("Unknown level: " + level);
+    }
+
+    /**
+     * Returns the level label of a difficulty code.
+     *
+     * @param code The code stored in a record.
+     * @return The label, or {@code null} for code 0 or an unknown code.
+     */
+    public static String levelName(int code) {
+        return code > 0 && code < LEVELS.length ? LEVELS[code] : null;
+    }
+
+    /**
+     * @param bytes The first bytes of a file.
+     * @return {@code true} if they are the binary corpus magic.
+     */
+    static boolean isMagic(byte[] bytes) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i])
+                return false;
+        }
+        return true;
+    }
+}
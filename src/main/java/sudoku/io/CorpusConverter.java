@@ -0,0 +1,83 @@
+package sudoku.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.DancingLinksArray;
+import sudoku.solver.Solver;
+
+/**
+ * Converts a text corpus into the packed {@link BinaryFormat}.
+ * <p>
+ * Usage: {@code CorpusConverter <input.txt> <output.bin> [--solutions]}.
+ * Level labels are stored when the first puzzle has one. With
+ * {@code --solutions} every puzzle is solved with {@link DancingLinksArray}
+ * and its solution is stored in the record. Corpora hold 9x9 puzzles only,
+ * as the binary format does.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #convert}: O(m) for m puzzles, plus one solve per puzzle with
+ * solutions.
+ */
+public class CorpusConverter {
+
+    /**
+     * Converts a corpus.
+     *
+     * @param input         The text corpus.
+     * @param output        The binary file to create or overwrite.
+     * @param withSolutions Whether to solve every puzzle and store the result.
+     * @return The number of puzzles written.
+     * @throws IOException              if a file cannot be read or written.
+     * @throws IllegalArgumentException if a puzzle is malformed, has an
+     *                                  unknown level, or has no solution.
+     */
+    public static long convert(Path input, Path output, boolean withSolutions) throws IOException {
+        boolean withLevels;
+        try (CorpusReader reader = new CorpusReader(input)) {
+            withLevels = reader.next() && reader.level() != null;
+        }
+
+        Solver solver = withSolutions ? new DancingLinksArray() : null;
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        byte[] solution = new byte[PuzzleSource.CELLS];
+
+        try (CorpusReader reader = new CorpusReader(input);
+                BinaryCorpusWriter writer = new BinaryCorpusWriter(output, withLevels, withSolutions)) {
+            while (reader.next()) {
+                if (solver != null) {
+                    reader.copyTo(sudoku.getGrid());
+                    solver.setSudoku(sudoku);
+                    if (!solver.solve())
+                        throw new IllegalArgumentException("No solution for the puzzle at line " + reader.lineNumber());
+                    int[][] grid = sudoku.getGrid();
+                    for (int i = 0; i < PuzzleSource.CELLS; i++)
+                        solution[i] = (byte) grid[i / 9][i % 9];
+                }
+                writer.write(reader.cells(), reader.level(), solution);
+            }
+            return writer.count();
+        }
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args The input file, the output file and optionally
+     *             {@code --solutions}.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3 || (args.length == 3 && !args[2].equals("--solutions"))) {
+            System.err.println("Usage: CorpusConverter <input.txt> <output.bin> [--solutions]");
+            System.exit(2);
+        }
+
+        long count = convert(Paths.get(args[0]), Paths.get(args[1]), args.length == 3);
+        System.out.println("Wrote " + count + " puzzles to " + args[1]);
+    }
+}
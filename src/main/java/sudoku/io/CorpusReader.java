@@ -0,0 +1,263 @@
+package sudoku.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams the puzzles of a text corpus from a memory-mapped file.
+ * <p>
+ * Every non-blank line holds one puzzle in one of these forms:
+ * </p>
+ * <ul>
+ * <li>{@code LEVEL:digits}, as in {@code input.txt};</li>
+ * <li>81 digits, with {@code 0} for an empty cell;</li>
+ * <li>81 characters with {@code .} for an empty cell.</li>
+ * </ul>
+ * <p>
+ * The file is mapped in windows of {@value #DEFAULT_WINDOW} bytes, so corpora
+ * larger than 2 GB work too. Mapped bytes are moved with bulk copies into one
+ * reusable chunk, which is much cheaper than reading a mapped buffer byte by
+ * byte, and {@link #next()} decodes the puzzle from there into a reusable
+ * 81-byte buffer; reading a corpus allocates nothing per puzzle. Level labels are returned as cached strings,
+ * one per distinct label. The reader is not thread-safe.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #next()}: O(L), L the length of the line.
+ */
+public class CorpusReader implements PuzzleSource {
+    /** Bytes mapped at a time. */
+    private static final int DEFAULT_WINDOW = 64 << 20;
+
+    /** Size of the chunk that mapped bytes are copied into for parsing. */
+    private static final int CHUNK = 64 << 10;
+
+    /** Longest accepted line; the chunk is refilled before a line could cross its end. */
+    private static final int MAX_LINE = 1024;
+
+    /** Distinct level labels kept as cached strings. */
+    private static final int MAX_LEVELS = 64;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int window;
+
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private boolean mappedAll;
+
+    private final byte[] chunk = new byte[CHUNK];
+    private int chunkPos;
+    private int chunkLength;
+    private long lineNumber;
+
+    private final byte[] cells = new byte[CELLS];
+    private String level;
+    private final String[] levels = new String[MAX_LEVELS];
+    private int levelCount;
+
+    /**
+     * Opens a corpus file.
+     *
+     * @param path The file to read.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    public CorpusReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Opens a corpus file with the given window size.
+     *
+     * @param path   The file to read.
+     * @param window Bytes mapped at a time.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    CorpusReader(Path path, int window) throws IOException {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.window = window;
+        map(0);
+    }
+
+    /**
+     * Advances to the next puzzle, skipping blank lines.
+     *
+     * @return {@code false} at the end of the file.
+     * @throws IOException              if the file cannot be mapped.
+     * @throws IllegalArgumentException if the line is not a puzzle.
+     */
+    @Override
+    public boolean next() throws IOException {
+        byte[] b = chunk;
+        while (true) {
+            if (chunkLength - chunkPos < MAX_LINE && !(mappedAll && !buffer.hasRemaining()))
+                fill();
+            if (chunkPos >= chunkLength)
+                return false;
+
+            int start = chunkPos;
+            int end = start;
+            while (end < chunkLength && b[end] != '\n')
+                end++;
+            if (end - start >= MAX_LINE)
+                throw invalid("line of " + MAX_LINE + " bytes or more");
+            chunkPos = end + 1;
+            lineNumber++;
+
+            // Trim whitespace, including the '\r' of CRLF line endings
+            while (start < end && b[start] <= ' ')
+                start++;
+            while (end > start && b[end - 1] <= ' ')
+                end--;
+            if (start == end)
+                continue;
+
+            parse(start, end);
+            return true;
+        }
+    }
+
+    /**
+     * Decodes one trimmed, non-empty line of the chunk.
+     */
+    private void parse(int start, int end) {
+        byte[] b = chunk;
+        int colon = -1;
+        for (int i = start; i < end; i++) {
+            if (b[i] == ':') {
+                colon = i;
+                break;
+            }
+        }
+
+        int digits = start;
+        level = null;
+        if (colon >= 0) {
+            int labelEnd = colon;
+            while (labelEnd > start && b[labelEnd - 1] <= ' ')
+                labelEnd--;
+            level = levelOf(start, labelEnd);
+            digits = colon + 1;
+            while (digits < end && b[digits] <= ' ')
+                digits++;
+        }
+
+        if (end - digits != CELLS)
+            throw invalid("expected " + CELLS + " cells, got " + (end - digits));
+        for (int i = 0; i < CELLS; i++) {
+            int c = b[digits + i];
+            if (c >= '0' && c <= '9')
+                cells[i] = (byte) (c - '0');
+            else if (c == '.')
+                cells[i] = 0;
+            else
+                throw invalid("invalid character '" + (char) c + "' at position " + i);
+        }
+    }
+
+    /**
+     * Returns the cached string for a label, creating it on first sight.
+     */
+    private String levelOf(int start, int end) {
+        int length = end - start;
+        for (int k = 0; k < levelCount; k++) {
+            String known = levels[k];
+            if (known.length() != length)
+                continue;
+            int i = 0;
+            while (i < length && known.charAt(i) == (char) (chunk[start + i] & 0xFF))
+                i++;
+            if (i == length)
+                return known;
+        }
+
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = (char) (chunk[start + i] & 0xFF);
+        String label = new String(chars);
+        if (levelCount < MAX_LEVELS)
+            levels[levelCount++] = label;
+        return label;
+    }
+
+    /**
+     * Moves the unread tail of the chunk to its front and tops it up with
+     * bulk copies from the mapped windows.
+     */
+    private void fill() throws IOException {
+        int tail = chunkLength - chunkPos;
+        System.arraycopy(chunk, chunkPos, chunk, 0, tail);
+        chunkPos = 0;
+        chunkLength = tail;
+
+        while (chunkLength < CHUNK) {
+            if (!buffer.hasRemaining()) {
+                if (mappedAll)
+                    return;
+                map(bufferStart + buffer.limit());
+            }
+            int n = Math.min(CHUNK - chunkLength, buffer.remaining());
+            buffer.get(chunk, chunkLength, n);
+            chunkLength += n;
+        }
+    }
+
+    /**
+     * Maps the window starting at the given file offset.
+     */
+    private void map(long offset) throws IOException {
+        long length = Math.min(window, fileSize - offset);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        bufferStart = offset;
+        mappedAll = offset + length >= fileSize;
+    }
+
+    private IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid puzzle at line " + lineNumber + ": " + reason);
+    }
+
+    /**
+     * Returns the cells of the current puzzle, row by row, with 0 for empty
+     * cells. The array is reused by the next call to {@link #next()}.
+     *
+     * @return The 81 cell values.
+     */
+    @Override
+    public byte[] cells() {
+        return cells;
+    }
+
+    /**
+     * @return The level label of the current puzzle, or {@code null} if the
+     *         line has none.
+     */
+    @Override
+    public String level() {
+        return level;
+    }
+
+    /**
+     * @return The 1-based line number of the current puzzle.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Closes the file. The last mapped window stays valid until it is
+     * garbage collected, but must no longer be read through this reader.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,128 @@
+package sudoku.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A sequential stream of 9x9 puzzles, read one at a time into a reused
+ * buffer.
+ * <p>
+ * Implemented by {@link CorpusReader} for text corpora and by
+ * {@link BinaryCorpusReader} for the packed binary format;
+ * {@link #open(Path)} picks the right one from the file's first bytes.
+ * </p>
+ */
+public interface PuzzleSource extends AutoCloseable {
+    /** Number of cells of a puzzle. */
+    int CELLS = 81;
+
+    /**
+     * Advances to the next puzzle.
+     *
+     * @return {@code false} once every puzzle has been read.
+     * @throws IOException if the file cannot be read.
+     */
+    boolean next() throws IOException;
+
+    /**
+     * Returns the cells of the current puzzle, row by row, with 0 for empty
+     * cells. The array is reused by the next call to {@link #next()}.
+     *
+     * @return The 81 cell values.
+     */
+    byte[] cells();
+
+    /**
+     * @return The level label of the current puzzle, or {@code null} if it
+     *         has none.
+     */
+    String level();
+
+    /**
+     * Writes the current puzzle into a 9x9 grid.
+     *
+     * @param grid The grid to fill.
+     */
+    default void copyTo(int[][] grid) {
+        byte[] cells = cells();
+        for (int r = 0, i = 0; r < 9; r++) {
+            int[] row = grid[r];
+            for (int c = 0; c < 9; c++)
+                row[c] = cells[i++];
+        }
+    }
+
+    /**
+     * Returns the current puzzle in the 81-digit input format. Allocates a new
+     * string.
+     *
+     * @return The puzzle with 0 for empty cells.
+     */
+    default String toInputString() {
+        byte[] cells = cells();
+        char[] chars = new char[CELLS];
+        for (int i = 0; i < CELLS; i++)
+            chars[i] = (char) ('0' + cells[i]);
+        return new String(chars);
+    }
+
+    /**
+     * Returns the remaining puzzles as input strings, for APIs that take
+     * strings such as {@link sudoku.batch.BatchSolver}. The iterable can be
+     * iterated once and advances this source.
+     *
+     * @return The remaining puzzles in the 81-digit input format.
+     * @throws UncheckedIOException from the iterator if the file cannot be read.
+     */
+    default Iterable<String> inputStrings() {
+        return () -> new Iterator<String>() {
+            private Boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (ready == null) {
+                    try {
+                        ready = PuzzleSource.this.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return ready;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                ready = null;
+                return toInputString();
+            }
+        };
+    }
+
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Opens a corpus in either the text or the binary format.
+     *
+     * @param path The corpus file.
+     * @return A source positioned before the first puzzle.
+     * @throws IOException if the file cannot be opened or has a bad header.
+     */
+    static PuzzleSource open(Path path) throws IOException {
+        byte[] magic = new byte[BinaryFormat.MAGIC.length];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(magic, 0, magic.length);
+        }
+        if (read == magic.length && BinaryFormat.isMagic(magic))
+            return new BinaryCorpusReader(path);
+        return new CorpusReader(path);
+    }
+}
@@ -0,0 +1,285 @@
+package sudoku.io;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A persistent map from puzzles to solutions: an open-addressed hash table in
+ * a memory-mapped file that several local processes can share.
+ * <p>
+ * The file starts with a {@value #HEADER_SIZE}-byte header: the magic
+ * {@code "SDKS"}, a version byte, at offset 8 the number of slots, a power of
+ * two fixed when the file is created, and at offset 12 the number of stored
+ * puzzles, both big-endian ints. Each {@value #SLOT_SIZE}-byte slot
+ * holds a 4-byte state word, the puzzle and the solution, both packed with
+ * {@link BinaryFormat#pack}. A state of 0 marks an empty slot; any other
+ * value marks a full slot and carries bits of the puzzle's hash, so most
+ * probes skip a foreign slot without comparing the puzzle.
+ * </p>
+ * <p>
+ * Entries are never removed or changed. An insert writes the puzzle and the
+ * solution first and then publishes the state word with a release store;
+ * lookups read the state word with an acquire load, so a reader that sees a
+ * full slot, in this or another process, also sees its contents. Lookups take
+ * no lock. Inserts are serialised by an exclusive {@link FileLock} across
+ * processes and by this object's monitor within one; open each file once per
+ * process, because file locks are held per process. Collisions are resolved
+ * by linear probing. Inserts stop at a load factor of 3/4, after which
+ * {@link #put} returns {@code false}.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #get}, {@link #put}: O(1) expected.
+ */
+public class SolutionStore implements AutoCloseable {
+    /** Size of the file header in bytes. */
+    public static final int HEADER_SIZE = 64;
+
+    /** Size of one slot in bytes: state word, puzzle and solution, padded to 4. */
+    public static final int SLOT_SIZE = (4 + 2 * BinaryFormat.PACKED_SIZE + 3) & ~3;
+
+    /** Default number of slots of a new store. */
+    public static final int DEFAULT_SLOTS = 1 << 20;
+
+    /** Largest number of slots, so that the table fits one mapping. */
+    public static final int MAX_SLOTS = 1 << 24;
+
+    private static final byte[] MAGIC = { 'S', 'D', 'K', 'S' };
+    private static final byte VERSION = 1;
+    private static final int SLOTS_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+
+    /** Returned by {@link #find} when every slot holds another puzzle. */
+    private static final int NO_ROOM = Integer.MIN_VALUE;
+
+    /** Int view of the mapped file, for the acquire and release accesses. */
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /** Long view of a packed key, matching {@link ByteBuffer#getLong(int)}. */
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int slots;
+    private final int mask;
+    private final int maxEntries;
+    private final byte[] packed = new byte[BinaryFormat.PACKED_SIZE];
+
+    /**
+     * Opens a store, creating it with {@link #DEFAULT_SLOTS} slots if the file
+     * does not exist.
+     *
+     * @param path The store file.
+     * @throws IOException if the file cannot be opened or is not a store.
+     */
+    public SolutionStore(Path path) throws IOException {
+        this(path, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Opens a store, creating it with the given number of slots if the file
+     * does not exist or is empty. An existing store keeps its own size.
+     *
+     * @param path  The store file.
+     * @param slots The number of slots of a new store, rounded up to a power
+     *              of two.
+     * @throws IOException              if the file cannot be opened or is not
+     *                                  a store.
+     * @throws IllegalArgumentException if the number of slots is not between 1
+     *                                  and {@link #MAX_SLOTS}.
+     */
+    public SolutionStore(Path path, int slots) throws IOException {
+        if (slots < 1 || slots > MAX_SLOTS)
+            throw new IllegalArgumentException("Slots must be between 1 and " + MAX_SLOTS + ": " + slots);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.lock();
+            try {
+                if (channel.size() == 0) {
+                    int size = Integer.highestOneBit(slots);
+                    writeHeader(size < slots ? size << 1 : size);
+                }
+            } finally {
+                lock.release();
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // read the whole header
+            }
+            if (header.hasRemaining() || !header.slice(0, MAGIC.length).equals(ByteBuffer.wrap(MAGIC)))
+                throw new IOException("Not a solution store: " + path);
+            if (header.get(4) != VERSION)
+                throw new IOException("Unsupported solution store version " + header.get(4) + ": " + path);
+
+            int size = header.getInt(SLOTS_OFFSET);
+            if (size <= 0 || size > MAX_SLOTS || Integer.bitCount(size) != 1
+                    || channel.size() < HEADER_SIZE + (long) size * SLOT_SIZE)
+                throw new IOException("Corrupt solution store: " + path);
+            this.slots = size;
+            this.mask = size - 1;
+            this.maxEntries = (int) (size * 3L / 4);
+            this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) size * SLOT_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void writeHeader(int slots) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).put(VERSION);
+        header.putInt(SLOTS_OFFSET, slots).rewind();
+        while (header.hasRemaining())
+            channel.write(header, header.position());
+        // Extend the file with zeros, which are empty slots
+        channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) slots * SLOT_SIZE - 1);
+    }
+
+    /**
+     * Looks up a puzzle. Safe to call from several threads.
+     *
+     * @param cells    The 81 cells of the puzzle, 0 for empty.
+     * @param solution Receives the 81 cells of the solution if found.
+     * @return {@code true} if the puzzle is stored.
+     */
+    public boolean get(byte[] cells, byte[] solution) {
+        byte[] key = new byte[BinaryFormat.PACKED_SIZE];
+        BinaryFormat.pack(cells, key, 0);
+        int slot = find(key, tag(key));
+        if (slot < 0)
+            return false;
+        map.get(offset(slot) + 4 + BinaryFormat.PACKED_SIZE, key); // one bulk copy
+        BinaryFormat.unpack(key, 0, solution);
+        return true;
+    }
+
+    /**
+     * Stores the solution of a puzzle unless the puzzle is already stored.
+     *
+     * @param cells    The 81 cells of the puzzle, 0 for empty.
+     * @param solution The 81 cells of its solution.
+     * @return {@code true} if the puzzle is stored after the call,
+     *         {@code false} if the store is full.
+     * @throws IOException if the file lock cannot be taken.
+     */
+    public synchronized boolean put(byte[] cells, byte[] solution) throws IOException {
+        BinaryFormat.pack(cells, packed, 0);
+        int tag = tag(packed);
+        FileLock lock = channel.lock();
+        try {
+            int slot = find(packed, tag);
+            if (slot >= 0)
+                return true; // Already stored, possibly by another process
+            if (slot == NO_ROOM || size() >= maxEntries)
+                return false;
+
+            int off = offset(~slot);
+            map.put(off + 4, packed);
+            BinaryFormat.pack(solution, packed, 0);
+            map.put(off + 4 + BinaryFormat.PACKED_SIZE, packed);
+            INT.setRelease(map, off, tag);
+            INT.setRelease(map, COUNT_OFFSET, size() + 1);
+            return true;
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Probes for a puzzle.
+     *
+     * @return The slot holding the puzzle; else {@code ~slot} for the empty
+     *         slot where it would go, or {@link #NO_ROOM} if every slot holds
+     *         another puzzle.
+     */
+    private int find(byte[] key, int tag) {
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes < slots; probes++, slot = (slot + 1) & mask) {
+            int off = offset(slot);
+            int state = (int) INT.getAcquire(map, off);
+            if (state == 0)
+                return ~slot;
+            if (state == tag && matches(off + 4, key))
+                return slot;
+        }
+        return NO_ROOM;
+    }
+
+    /** Compares a stored puzzle with a key, eight bytes at a time. */
+    private boolean matches(int off, byte[] key) {
+        int i = 0;
+        for (; i + 8 <= key.length; i += 8) {
+            if (map.getLong(off + i) != (long) LONG.get(key, i))
+                return false;
+        }
+        for (; i < key.length; i++) {
+            if (map.get(off + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static int hash(byte[] key) {
+        long h = 0;
+        int i = 0;
+        for (; i + 8 <= key.length; i += 8)
+            h = (h ^ (long) LONG.get(key, i)) * 0x9e3779b97f4a7c15L;
+        for (; i < key.length; i++)
+            h = h * 31 + key[i];
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /** The state word of a full slot: high hash bits, never 0. */
+    private static int tag(byte[] key) {
+        return hash(key) >>> 16 | 0x10000;
+    }
+
+    /**
+     * @return The number of stored puzzles.
+     */
+    public int size() {
+        return (int) INT.getAcquire(map, COUNT_OFFSET);
+    }
+
+    /**
+     * @return The number of slots of the table.
+     */
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * Writes changed pages to the file so that they survive a system crash.
+     * Other processes see inserts without it.
+     */
+    public void force() {
+        map.force();
+    }
+
+    /**
+     * Closes the file. Inserts are written back by the operating system even
+     * without {@link #force()}.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -4,6 +4,11 @@ package sudoku.model;
  * The Sudoku class represents a Sudoku puzzle and provides methods to read,
  * solve, and print the puzzle.
  * It uses the Algorithm X method to solve the puzzle.
+ * <p>
+ * Grids are n^2 x n^2 for a box size n from 2 to
+ * {@link SudokuConstant#MAX_BOX_SIZE}: the standard 9x9, and 16x16 or 25x25.
+ * Cells are written with the characters of {@link SudokuConstant#SYMBOLS}.
+ * </p>
  */
 public class Sudoku {
 
@@ -23,15 +28,20 @@ public class Sudoku {
     int[][] grid;
 
     /**
-     * Constructs a Sudoku object with the specified sub-grid size.
+     * Constructs a Sudoku object with the specified side length.
      * Initializes the grid with all zeros.
      *
-     * @param size The size of the smaller sub-grid.
+     * @param size The size of the entire grid: {@link SudokuConstant#N} for a
+     *             standard puzzle, 16 or 25 for the larger ones.
+     * @throws IllegalArgumentException if the size is not the square of a
+     *                                  supported box size.
      * Time Complexity: O(N^2) in the worst case, where N is the size of the entire grid.
      */
     public Sudoku(int size) {
-        SIZE = size;
-        N = SudokuConstant.N;  // Use the constant N value
+        SIZE = SudokuConstant.boxSizeOf(size);
+        if (SIZE < 0)
+            throw new IllegalArgumentException("Unsupported grid size: " + size);
+        N = size;
 
         grid = new int[N][N];
         for (int i = 0; i < N; i++)
@@ -49,16 +59,38 @@ public class Sudoku {
         return grid;
     }
 
+    /**
+     * Returns the side length of the grid.
+     *
+     * @return 9 for a standard puzzle.
+     * Time Complexity: O(1).
+     */
+    public int getSize() {
+        return N;
+    }
+
+    /**
+     * Returns the side length of a box.
+     *
+     * @return 3 for a standard puzzle.
+     * Time Complexity: O(1).
+     */
+    public int getBoxSize() {
+        return SIZE;
+    }
+
     /**
      * Reads the Sudoku grid from the input string.
      * Each cell value is read from the string and populated into the grid.
      *
-     * @param input The input string representing the Sudoku grid.
-     * @throws Exception If the input length is invalid.
+     * @param input The input string representing the Sudoku grid, one
+     *              {@link SudokuConstant#SYMBOLS symbol} per cell.
+     * @throws Exception If the input length is invalid or a cell is not a
+     *                   value of this grid.
      * Time Complexity: O(N^2) in the worst case, where N is the size of the entire grid.
      */
     public void read(String input) throws Exception {
-        if (input.length() != N * N) { // N is 9, so N*N is 81
+        if (input.length() != N * N) { // 81 for a standard puzzle
             throw new IllegalArgumentException("Input length must be " + (N * N));
         }
 
@@ -66,36 +98,56 @@ public class Sudoku {
         for (int i = 0; i < N; i++) {
             for (int j = 0; j < N; j++) {
                 char c = input.charAt(index);
-                grid[i][j] = Character.getNumericValue(c);
+                int value = SudokuConstant.valueOf(c);
+                if (value < 0 || value > N) {
+                    throw new IllegalArgumentException("Invalid cell '" + c + "' at position " + index);
+                }
+                grid[i][j] = value;
                 index++;
             }
         }
     }
 
+    /**
+     * Returns the grid in the same row-major digit format accepted by
+     * {@link #read(String)}, with 0 for empty cells.
+     *
+     * @return The grid as a string of N * N symbols.
+     * Time Complexity: O(N^2) in the worst case, where N is the size of the entire grid.
+     */
+    public String toInputString() {
+        StringBuilder sb = new StringBuilder(N * N);
+        for (int i = 0; i < N; i++)
+            for (int j = 0; j < N; j++)
+                sb.append(SudokuConstant.symbolOf(grid[i][j]));
+        return sb.toString();
+    }
+
     /**
      * Prints the Sudoku grid in a formatted manner.
      * Includes grid lines to separate sub-grids.
      * Time Complexity: O(N^2) in the worst case, where N is the size of the entire grid.
      */
     public void print() {
-        for (int r = 0; r < SIZE; r++) {
-            if (r % 3 == 0) {
-                System.out.println("+-------+-------+-------+");
+        String line = ("+" + "-".repeat(2 * SIZE + 1)).repeat(SIZE) + "+";
+        for (int r = 0; r < N; r++) {
+            if (r % SIZE == 0) {
+                System.out.println(line);
             }
-            for (int c = 0; c < SIZE; c++) {
-                if (c % 3 == 0) {
+            for (int c = 0; c < N; c++) {
+                if (c % SIZE == 0) {
                     System.out.print("| ");
                 }
-                System.out.print(grid[r][c] + " ");
+                System.out.print(SudokuConstant.symbolOf(grid[r][c]) + " ");
             }
             System.out.println("|");
         }
-        System.out.println("+-------+-------+-------+");
+        System.out.println(line);
     }
 
     /**
      * Checks if the Sudoku puzzle is solved.
-     * Validates rows, columns, and 3x3 subgrids for duplicates.
+     * Validates rows, columns, and subgrids for duplicates.
      *
      * @return True if the Sudoku is solved, false otherwise.
      * Time Complexity: O(N^2) in the worst case, where N is the size of the entire grid.
@@ -142,7 +194,7 @@ public class Sudoku {
     }
 
     /**
-     * Helper method to check a 3x3 subgrid for duplicates.
+     * Helper method to check a subgrid for duplicates.
      *
      * @param index The index of the subgrid to check.
      * @return True if no duplicates are found, false otherwise.
@@ -150,11 +202,11 @@ public class Sudoku {
      */
     private boolean checkSubgrid(int index) {
         boolean[] checkBox = new boolean[N + 1];
-        int boxRowStart = (index / 3) * 3;
-        int boxColStart = (index % 3) * 3;
+        int boxRowStart = (index / SIZE) * SIZE;
+        int boxColStart = (index % SIZE) * SIZE;
 
-        for (int row = boxRowStart; row < boxRowStart + 3; row++) {
-            for (int col = boxColStart; col < boxColStart + 3; col++) {
+        for (int row = boxRowStart; row < boxRowStart + SIZE; row++) {
+            for (int col = boxColStart; col < boxColStart + SIZE; col++) {
                 int value = this.grid[row][col];
                 if (value != 0 && checkBox[value]) {
                     return false;
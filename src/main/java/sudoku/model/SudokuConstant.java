@@ -15,6 +15,10 @@ package sudoku.model;
  * - {@code EASY}, {@code MEDIUM}, {@code HARD}, {@code EVIL}: Strings
  * representing Sudoku puzzles
  * of different difficulty levels.
+ * - {@code MAX_BOX_SIZE}, {@code SYMBOLS}: the largest supported grid and the
+ * characters that encode cell values, so that 16x16 and 25x25 puzzles fit one
+ * character per cell: {@code 1}-{@code 9}, then {@code A} for 10 up to
+ * {@code P} for 25, with {@code 0} or {@code .} for an empty cell.
  *
  * Complexity:
  * - Accessing constants is an O(1) operation as they are stored in
@@ -24,8 +28,52 @@ public class SudokuConstant {
     public static final int SIZE = 3;
     public static final int N = 9;
 
+    /** Largest supported box size: 25x25 grids, the last whose values fit {@link #SYMBOLS}. */
+    public static final int MAX_BOX_SIZE = 5;
+
+    /** The character of every cell value, indexed by value; 0 is an empty cell. */
+    public static final String SYMBOLS = "0123456789ABCDEFGHIJKLMNOP";
+
     public static final String EASY = "000010000010030080740000100430000007000008000081304000003060070067003001004000600";
     public static final String MEDIUM = "040308100210065000600000070903046781104829506805000020400000600000602047080030000";
     public static final String HARD = "500003000031007402480090030000004290604082000250000046379000684000000003000730009";
     public static final String EVIL = "000000000090060800010400030950300008000500200040900600205000000080070100001040002";
-}
\ No newline at end of file
+
+    /**
+     * Returns the box size of a grid with the given side length.
+     *
+     * @param n The side length of the grid.
+     * @return The box size b with b * b == n, from 2 to {@link #MAX_BOX_SIZE},
+     *         or -1 if the side length is not supported.
+     */
+    public static int boxSizeOf(int n) {
+        for (int box = 2; box <= MAX_BOX_SIZE; box++) {
+            if (box * box == n)
+                return box;
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes one cell of a puzzle string. Letters may be upper or lower case.
+     *
+     * @param c The character of the cell.
+     * @return The value, 0 for an empty cell, or -1 if the character is not a
+     *         cell symbol.
+     */
+    public static int valueOf(char c) {
+        if (c == '.')
+            return 0;
+        return SYMBOLS.indexOf(Character.toUpperCase(c));
+    }
+
+    /**
+     * Encodes a cell value as its character.
+     *
+     * @param value The value, 0 for an empty cell.
+     * @return The symbol of the value.
+     */
+    public static char symbolOf(int value) {
+        return SYMBOLS.charAt(value);
+    }
+}
@@ -25,26 +25,56 @@ public class BasicBacktracking extends Solver {
      *         cell may try all 9 numbers.
      */
     @Override
-    public boolean solve() {
+    protected boolean doSolve() {
         int[][] grid = sudoku.getGrid();
+        if (!state.load(grid))
+            return false;
+        return backtrack(grid, 0, 0);
+    }
+
+    /**
+     * Fills the empty cells from the given position onwards in row-major order.
+     * Candidate values come from the occupancy masks in {@link #state}, tried in
+     * ascending order.
+     *
+     * @param grid The grid being solved.
+     * @param from  The first cell index (row * size + col) that may still be empty.
+     * @param depth The number of values placed by the search so far.
+     * @return true once the solution limit is reached, false otherwise.
+     * 
+     *         Time Complexity (Worst Case): O(9^(N*N)).
+     */
+    private boolean backtrack(int[][] grid, int from, int depth) {
+        if (control.countNode())
+            return false; // Stopped by the search budget
+        if (stats != null)
+            stats.recordDepth(depth);
+
+        int size = grid.length;
+        for (int cell = from; cell < size * size; cell++) {
+            int row = cell / size, col = cell % size;
+            if (grid[row][col] == 0) {
+                int mask = state.candidates(row, col);
+                if (stats != null)
+                    stats.recordCandidateCheck();
+                while (mask != 0) {
+                    int num = Integer.numberOfTrailingZeros(mask) + 1;
+                    mask &= mask - 1;
 
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (grid[row][col] == 0) {
-                    for (int num = 1; num <= 9; num++) {
-                        if (isValid(row, col, num)) {
-                            grid[row][col] = num;
+                    grid[row][col] = num;
+                    state.place(row, col, num);
 
-                            if (solve())
-                                return true;
+                    if (backtrack(grid, cell + 1, depth + 1))
+                        return true;
 
-                            grid[row][col] = 0;
-                        }
-                    }
-                    return false;
+                    state.unplace(row, col, num);
+                    grid[row][col] = 0;
+                    if (stats != null)
+                        stats.recordBacktrack();
                 }
+                return false;
             }
         }
-        return true;
+        return onSolution(); // Every cell is filled
     }
 }
@@ -0,0 +1,102 @@
+package sudoku.solver;
+
+import sudoku.model.SudokuConstant;
+
+/**
+ * A solver that answers isomorphic puzzles from a {@link SolutionCache}.
+ * <p>
+ * Each puzzle is put into its {@link CanonicalForm} and looked up. On a hit
+ * the cached canonical solution is mapped back onto the grid without a search.
+ * On a miss the wrapped solver solves the original puzzle, and its solution
+ * is mapped into canonical form and stored; a puzzle proven unsolvable is
+ * stored as such. A solve stopped by the {@link SearchBudget} is not cached.
+ * Puzzles too symmetric to canonicalize go straight to the wrapped solver,
+ * and so do calls to {@link #countSolutions(int)} with a limit above 1,
+ * because the cache keeps one solution per puzzle, and grids other than 9x9.
+ * </p>
+ * <p>
+ * Several caching solvers, for example one per worker of a
+ * {@link sudoku.batch.BatchSolver}, may share one cache.
+ * </p>
+ *
+ * Big O Complexity:
+ * - Hit: that of {@link CanonicalForm#compute}, far below a search.
+ * - Miss: that of the wrapped solver, plus the canonicalization.
+ */
+public class CachingSolver extends Solver {
+    private final Solver delegate;
+    private final SolutionCache cache;
+    private final CanonicalForm form = new CanonicalForm();
+    private final byte[] canonical = new byte[CanonicalForm.CELLS];
+    private boolean lastHit;
+
+    /**
+     * Wraps a solver.
+     *
+     * @param delegate The solver used on a miss.
+     * @param cache    The cache to read and fill, possibly shared.
+     */
+    public CachingSolver(Solver delegate, SolutionCache cache) {
+        super("Cached " + delegate.getName());
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * @return The cache this solver reads and fills.
+     */
+    public SolutionCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return {@code true} if the last solve was answered from the cache.
+     */
+    public boolean wasHit() {
+        return lastHit;
+    }
+
+    @Override
+    protected boolean doSolve() {
+        int[][] grid = sudoku.getGrid();
+        lastHit = false;
+        if (getSolutionLimit() > 1 || grid.length != SudokuConstant.N)
+            return solveWithDelegate();
+
+        if (!form.compute(grid)) {
+            cache.recordSkip();
+            return solveWithDelegate();
+        }
+
+        Boolean cached = cache.get(form.key(), canonical);
+        if (cached != null) {
+            lastHit = true;
+            if (cached)
+                form.fromCanonical(canonical, grid);
+            return cached;
+        }
+
+        boolean solved = solveWithDelegate();
+        if (solved) {
+            form.toCanonical(grid, canonical);
+            cache.put(form.key(), canonical);
+        } else if (delegate.getStopReason() == StopReason.EXHAUSTED) {
+            cache.put(form.key(), null);
+        }
+        return solved;
+    }
+
+    private boolean solveWithDelegate() {
+        delegate.setSudoku(sudoku);
+        delegate.setBudget(getBudget());
+        delegate.setStatsEnabled(stats != null);
+
+        int found = delegate.countSolutions(getSolutionLimit());
+        recordSolutions(found);
+        control.absorb(delegate.control); // The wrapped solver did the counting
+        StopReason reason = delegate.getStopReason();
+        if (reason != StopReason.SOLVED && reason != StopReason.EXHAUSTED)
+            control.stop(reason); // Report the budget limit that was hit
+        return found >= getSolutionLimit();
+    }
+}
@@ -0,0 +1,24 @@
+package sudoku.solver;
+
+/**
+ * A flag that lets another thread ask a running solver to stop.
+ * A solver polls the token from its search loop, so it stops within a few
+ * milliseconds of {@link #cancel()} being called.
+ */
+public class CancellationToken {
+    private volatile boolean cancelled;
+
+    /**
+     * Requests cancellation. Safe to call from any thread, any number of times.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return {@code true} once {@link #cancel()} has been called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,226 @@
+package sudoku.solver;
+
+import sudoku.model.SudokuConstant;
+
+/**
+ * Incremental candidate bookkeeping for an n^2 x n^2 Sudoku grid.
+ * <p>
+ * Keeps one occupancy mask per row, per column and per box. Bit {@code v - 1}
+ * of a mask is set when the value {@code v} is already placed in that unit.
+ * Placing or removing a value updates three masks, and the legal values of a
+ * cell are the complement of the OR of its three unit masks, so both
+ * operations replace the 3n^2-cell scan done by {@link Solver#isValid}. The
+ * masks are {@code int}s, which holds every value up to 25x25 grids.
+ * </p>
+ * <p>
+ * The box and peer tables of every supported size are built once and shared;
+ * {@link #load(int[][])} picks the ones matching the grid, so one instance can
+ * solve grids of different sizes in turn.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #load(int[][])}: O(n^2), where n is the size of the grid.
+ * - {@link #place}, {@link #unplace}, {@link #isLegal}, {@link #candidates}:
+ * O(1).
+ */
+public class CandidateState {
+    /** Largest supported side length. */
+    public static final int MAX_SIZE = SudokuConstant.MAX_BOX_SIZE * SudokuConstant.MAX_BOX_SIZE;
+
+    /** Box and peer tables, indexed by box size; {@code null} below 2. */
+    private static final Layout[] LAYOUTS = new Layout[SudokuConstant.MAX_BOX_SIZE + 1];
+
+    static {
+        for (int box = 2; box < LAYOUTS.length; box++)
+            LAYOUTS[box] = new Layout(box);
+    }
+
+    /** The fixed geometry of one grid size. */
+    private static final class Layout {
+        final int size;
+        final int all;
+        /** Box index of every cell, row * size + col. */
+        final int[] boxOf;
+        /** The cells sharing a row, column or box with each cell. */
+        final int[][] peers;
+
+        Layout(int box) {
+            size = box * box;
+            all = (int) ((1L << size) - 1);
+            boxOf = new int[size * size];
+            peers = new int[size * size][3 * size - 2 * box - 1];
+
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    boxOf[row * size + col] = (row / box) * box + col / box;
+                }
+            }
+
+            for (int cell = 0; cell < size * size; cell++) {
+                int row = cell / size, col = cell % size, count = 0;
+                for (int other = 0; other < size * size; other++) {
+                    int r = other / size, c = other % size;
+                    if (other != cell && (r == row || c == col || boxOf[other] == boxOf[cell])) {
+                        peers[cell][count++] = other;
+                    }
+                }
+            }
+        }
+    }
+
+    private final int[] rowMask = new int[MAX_SIZE];
+    private final int[] colMask = new int[MAX_SIZE];
+    private final int[] boxMask = new int[MAX_SIZE];
+
+    private Layout layout = LAYOUTS[SudokuConstant.SIZE];
+
+    /**
+     * Rebuilds the masks from the given grid, adopting its size.
+     *
+     * @param grid The grid to read, with 0 marking an empty cell.
+     * @return {@code true} if the givens are consistent, {@code false} if a value
+     *         appears twice in the same row, column or box.
+     *         <p>
+     *         Big O Complexity: O(n^2).
+     *         </p>
+     * @throws IllegalArgumentException if the grid is not n^2 x n^2 for a
+     *                                  supported box size n.
+     */
+    public boolean load(int[][] grid) {
+        int box = SudokuConstant.boxSizeOf(grid.length);
+        if (box < 2)
+            throw new IllegalArgumentException("Unsupported grid size: " + grid.length);
+        layout = LAYOUTS[box];
+        int size = layout.size;
+
+        for (int i = 0; i < size; i++) {
+            rowMask[i] = 0;
+            colMask[i] = 0;
+            boxMask[i] = 0;
+        }
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = grid[row][col];
+                if (value < 0 || value > size)
+                    return false;
+                if (value != 0) {
+                    if (!isLegal(row, col, value))
+                        return false;
+                    place(row, col, value);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the side length of the grid last loaded.
+     *
+     * @return 9 for a standard grid, 16 or 25 for the larger ones.
+     */
+    public int size() {
+        return layout.size;
+    }
+
+    /**
+     * Returns the mask holding every value of the grid last loaded.
+     *
+     * @return A mask with the low {@link #size()} bits set.
+     */
+    public int all() {
+        return layout.all;
+    }
+
+    /**
+     * Returns the box index of the given cell.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return The index of the box containing the cell, in reading order.
+     */
+    public int boxOf(int row, int col) {
+        return layout.boxOf[row * layout.size + col];
+    }
+
+    /**
+     * Returns the cells that share a row, column or box with a cell.
+     * The returned array is shared and must not be modified.
+     *
+     * @param cell The cell index, row * size + col.
+     * @return The peer cell indices: 20 on a 9x9 grid.
+     */
+    public int[] peers(int cell) {
+        return layout.peers[cell];
+    }
+
+    /**
+     * Returns the mask bit that represents a value.
+     *
+     * @param value A value from 1 to the grid size.
+     * @return The bit {@code 1 << (value - 1)}.
+     */
+    public static int bit(int value) {
+        return 1 << (value - 1);
+    }
+
+    /**
+     * Marks a value as placed in the row, column and box of a cell.
+     * The caller is responsible for writing the grid itself.
+     *
+     * @param row   The row index.
+     * @param col   The column index.
+     * @param value The value placed.
+     */
+    public void place(int row, int col, int value) {
+        int b = 1 << (value - 1);
+        rowMask[row] |= b;
+        colMask[col] |= b;
+        boxMask[layout.boxOf[row * layout.size + col]] |= b;
+    }
+
+    /**
+     * Clears a value previously recorded with {@link #place}.
+     *
+     * @param row   The row index.
+     * @param col   The column index.
+     * @param value The value removed.
+     */
+    public void unplace(int row, int col, int value) {
+        int b = ~(1 << (value - 1));
+        rowMask[row] &= b;
+        colMask[col] &= b;
+        boxMask[layout.boxOf[row * layout.size + col]] &= b;
+    }
+
+    /**
+     * Checks whether a value may be placed in a cell.
+     *
+     * @param row   The row index.
+     * @param col   The column index.
+     * @param value The value to test.
+     * @return {@code true} if the value is not yet used in the row, column or box.
+     */
+    public boolean isLegal(int row, int col, int value) {
+        return (used(row, col) & (1 << (value - 1))) == 0;
+    }
+
+    /**
+     * Returns every value that may still be placed in a cell.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return A mask where bit {@code v - 1} is set if {@code v} is legal.
+     */
+    public int candidates(int row, int col) {
+        return ~used(row, col) & layout.all;
+    }
+
+    /**
+     * Returns the union of the values used in the row, column and box of a
+     * cell.
+     */
+    private int used(int row, int col) {
+        return rowMask[row] | colMask[col] | boxMask[layout.boxOf[row * layout.size + col]];
+    }
+}
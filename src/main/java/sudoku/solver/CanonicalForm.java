@@ -0,0 +1,298 @@
+package sudoku.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Puts a 9x9 puzzle into a canonical form shared by all its isomorphs.
+ * <p>
+ * Two puzzles are isomorphic when one turns into the other by relabelling
+ * digits, permuting rows within a band, permuting bands, doing the same for
+ * columns and stacks, and transposing. The canonical form is the smallest
+ * relabelled grid, in row-major order, over a set of these transformations
+ * that only depends on the puzzle's isomorphism class:
+ * </p>
+ * <ol>
+ * <li>Every row and column gets a key that no transformation changes. Keys are
+ * refined over a few rounds: a row key combines, per stack, the digit
+ * frequencies of its cells with the keys of their columns, and a column key
+ * does the same with bands and rows. Keys are order-independent sums of
+ * mixed hashes, so a collision only merges two classes.</li>
+ * <li>Bands are sorted by the sum of their row keys and rows within a band by
+ * their key, and the same for stacks and columns. Only orders that agree with
+ * the sort remain, so ties are the only orders left to try.</li>
+ * <li>Every remaining pair of row and column orders is tried in both
+ * orientations. Digits are relabelled 1, 2, ... by first appearance and the
+ * smallest grid wins.</li>
+ * </ol>
+ * <p>
+ * Highly symmetric puzzles leave too many ties. When more than
+ * {@value #MAX_CANDIDATES} orders remain, {@link #compute} gives up, and the
+ * caller solves the puzzle without the cache. Whatever the keys, a computed
+ * form is always a real transformation of the puzzle, so a solution found
+ * for it is a valid solution of the original.
+ * </p>
+ * <p>
+ * An instance keeps its buffers between calls and is not thread-safe.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #compute}: O(k * n^2) for k candidate orders, k &lt;=
+ * {@value #MAX_CANDIDATES}; typical puzzles leave only a handful.
+ * - {@link #toCanonical}, {@link #fromCanonical}: O(n^2).
+ */
+final class CanonicalForm {
+    /** Number of cells of a 9x9 grid. */
+    static final int CELLS = 81;
+
+    /** Largest number of row and column orders tried per puzzle. */
+    static final int MAX_CANDIDATES = 4096;
+
+    /** Number of refinement rounds of the row and column keys. */
+    private static final int ROUNDS = 3;
+
+    /** The six orders of three items. */
+    private static final int[][] PERMS = {
+            { 0, 1, 2 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 }, { 2, 1, 0 } };
+
+    private final byte[] grid = new byte[CELLS];
+    private final int[] freq = new int[10];
+    private final long[] rowKey = new long[9];
+    private final long[] colKey = new long[9];
+    private final long[] nextRow = new long[9];
+    private final long[] nextCol = new long[9];
+
+    /** Best grid so far, relabelled. */
+    private final byte[] key = new byte[CELLS];
+    /** Original cell of every canonical cell of the best grid. */
+    private final int[] cellMap = new int[CELLS];
+    /** Canonical label of every original digit, 0 if it is not a given. */
+    private final byte[] label = new byte[10];
+    private int labels;
+    private boolean found;
+
+    private final byte[] trial = new byte[CELLS];
+    private final int[] trialMap = new int[CELLS];
+    private final byte[] trialLabel = new byte[10];
+
+    /**
+     * Computes the canonical form of a puzzle.
+     *
+     * @param puzzle The 9x9 grid, with 0 marking an empty cell.
+     * @return {@code true} if the form was computed, {@code false} if the
+     *         puzzle is too symmetric.
+     */
+    boolean compute(int[][] puzzle) {
+        Arrays.fill(freq, 0);
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int d = puzzle[r][c];
+                grid[r * 9 + c] = (byte) d;
+                freq[d]++;
+            }
+        }
+        refineKeys();
+
+        List<int[]> rowOrders = orders(rowKey);
+        List<int[]> colOrders = rowOrders == null ? null : orders(colKey);
+        if (colOrders == null || 2L * rowOrders.size() * colOrders.size() > MAX_CANDIDATES)
+            return false;
+
+        found = false;
+        for (int[] rows : rowOrders) {
+            for (int[] cols : colOrders) {
+                tryOrder(rows, cols, false);
+                tryOrder(rows, cols, true);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Refines the row and column keys. Round 0 only sees digit frequencies;
+     * every later round also sees the keys of the crossing lines from the
+     * round before.
+     */
+    private void refineKeys() {
+        Arrays.fill(rowKey, 0);
+        Arrays.fill(colKey, 0);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int line = 0; line < 9; line++) {
+                nextRow[line] = lineKey(line, true);
+                nextCol[line] = lineKey(line, false);
+            }
+            System.arraycopy(nextRow, 0, rowKey, 0, 9);
+            System.arraycopy(nextCol, 0, colKey, 0, 9);
+        }
+    }
+
+    /**
+     * Key of one row or column: a sum over its three blocks (stacks for a
+     * row, bands for a column) of a hash of the block's cells.
+     */
+    private long lineKey(int line, boolean row) {
+        long sum = 0;
+        for (int block = 0; block < 3; block++) {
+            long blockSum = 0;
+            for (int k = 0; k < 3; k++) {
+                int cross = block * 3 + k;
+                int d = grid[row ? line * 9 + cross : cross * 9 + line];
+                long crossKey = row ? colKey[cross] : rowKey[cross];
+                blockSum += mix(crossKey * 31 + (d == 0 ? 0 : freq[d] + 1));
+            }
+            sum += mix(blockSum);
+        }
+        return sum;
+    }
+
+    /**
+     * Lists every order of the nine lines that sorts the groups of three by
+     * the sum of their keys and the lines within a group by their key.
+     *
+     * @return The orders, or {@code null} if there are more than
+     *         {@link #MAX_CANDIDATES}.
+     */
+    private static List<int[]> orders(long[] lineKeys) {
+        long[] groupKeys = new long[3];
+        List<List<int[]>> inner = new ArrayList<>(3);
+        long count = 1;
+        for (int g = 0; g < 3; g++) {
+            List<int[]> perms = sortedPerms(lineKeys, g * 3);
+            inner.add(perms);
+            count *= perms.size();
+            groupKeys[g] = mix(lineKeys[g * 3]) + mix(lineKeys[g * 3 + 1]) + mix(lineKeys[g * 3 + 2]);
+        }
+        List<int[]> outer = sortedPerms(groupKeys, 0);
+        count *= outer.size();
+        if (count > MAX_CANDIDATES)
+            return null;
+
+        List<int[]> result = new ArrayList<>((int) count);
+        for (int[] groups : outer)
+            expand(groups, inner, 0, new int[9], result);
+        return result;
+    }
+
+    private static void expand(int[] groups, List<List<int[]>> inner, int pos, int[] order, List<int[]> out) {
+        if (pos == 3) {
+            out.add(order.clone());
+            return;
+        }
+        int g = groups[pos];
+        for (int[] perm : inner.get(g)) {
+            for (int k = 0; k < 3; k++)
+                order[pos * 3 + k] = g * 3 + perm[k];
+            expand(groups, inner, pos + 1, order, out);
+        }
+    }
+
+    /**
+     * @return The orders of the three items from {@code off} that do not
+     *         decrease their keys.
+     */
+    private static List<int[]> sortedPerms(long[] keys, int off) {
+        List<int[]> perms = new ArrayList<>(6);
+        for (int[] p : PERMS) {
+            if (keys[off + p[0]] <= keys[off + p[1]] && keys[off + p[1]] <= keys[off + p[2]])
+                perms.add(p);
+        }
+        return perms;
+    }
+
+    /**
+     * Relabels the grid seen through the given orders and keeps it if it is
+     * smaller than the best so far. Stops as soon as it is larger.
+     */
+    private void tryOrder(int[] rows, int[] cols, boolean transpose) {
+        Arrays.fill(trialLabel, (byte) 0);
+        int next = 1;
+        int cmp = found ? 0 : -1;
+        for (int i = 0; i < CELLS; i++) {
+            int r = i / 9, c = i % 9;
+            int src = transpose ? rows[c] * 9 + cols[r] : rows[r] * 9 + cols[c];
+            int d = grid[src];
+            byte v = 0;
+            if (d != 0) {
+                v = trialLabel[d];
+                if (v == 0)
+                    v = trialLabel[d] = (byte) next++;
+            }
+            if (cmp == 0) {
+                if (v > key[i])
+                    return;
+                if (v < key[i])
+                    cmp = -1;
+            }
+            trial[i] = v;
+            trialMap[i] = src;
+        }
+        if (cmp == 0)
+            return; // An automorphism: the same grid again
+
+        found = true;
+        labels = next - 1;
+        System.arraycopy(trial, 0, key, 0, CELLS);
+        System.arraycopy(trialMap, 0, cellMap, 0, CELLS);
+        System.arraycopy(trialLabel, 0, label, 0, 10);
+    }
+
+    /**
+     * @return The canonical puzzle of the last {@link #compute}; the array is
+     *         reused by the next call.
+     */
+    byte[] key() {
+        return key;
+    }
+
+    /**
+     * Transforms a solution of the original puzzle into a solution of the
+     * canonical puzzle. Digits that are not givens are labelled after the
+     * givens, by first appearance.
+     *
+     * @param solution The solved original grid.
+     * @param out      Receives the 81 canonical cells.
+     */
+    void toCanonical(int[][] solution, byte[] out) {
+        byte[] map = trialLabel;
+        System.arraycopy(label, 0, map, 0, 10);
+        int next = labels + 1;
+        for (int i = 0; i < CELLS; i++) {
+            int src = cellMap[i];
+            int d = solution[src / 9][src % 9];
+            if (map[d] == 0)
+                map[d] = (byte) next++;
+            out[i] = map[d];
+        }
+    }
+
+    /**
+     * Writes a solution of the canonical puzzle back onto the original grid.
+     * Canonical labels beyond the givens' go to the digits missing from the
+     * givens in increasing order; they are interchangeable in any solution.
+     *
+     * @param canonical The 81 cells of the canonical solution.
+     * @param grid      The original grid to fill.
+     */
+    void fromCanonical(byte[] canonical, int[][] grid) {
+        int[] digit = new int[10];
+        int free = labels + 1;
+        for (int d = 1; d <= 9; d++) {
+            if (label[d] != 0)
+                digit[label[d]] = d;
+            else
+                digit[free++] = d;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            int dst = cellMap[i];
+            grid[dst / 9][dst % 9] = digit[canonical[i]];
+        }
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
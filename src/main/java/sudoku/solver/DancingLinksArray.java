@@ -0,0 +1,64 @@
+package sudoku.solver;
+
+import java.util.stream.Stream;
+
+import sudoku.solver.dancinglinks.ArrayDLX;
+import sudoku.solver.dancinglinks.SolutionIterator;
+
+/**
+ * Sudoku solver using Dancing Links on the array-based engine
+ * {@link ArrayDLX}. It gives the same results as {@link DancingLinksX}, but
+ * keeps the links in parallel {@code int} arrays instead of node objects.
+ *
+ * <p>
+ * Time Complexity (Worst Case):
+ * </p>
+ * <ul>
+ * <li>Constructor: O(1)</li>
+ * <li>{@link #solve()}: O(2^n), where n is the number of constraints to
+ * satisfy.</li>
+ * </ul>
+ */
+public class DancingLinksArray extends Solver {
+
+    /** The engine is reused between solves, so its arrays are allocated once. */
+    private final ArrayDLX engine = new ArrayDLX();
+
+    /**
+     * Constructs a new solver instance with the name "Dancing Links (Array)".
+     */
+    public DancingLinksArray() {
+        super("Dancing Links (Array)");
+        engine.setControl(control);
+    }
+
+    /**
+     * Returns a lazy stream of every solution of the current puzzle. The
+     * search advances only as solutions are consumed and is limited by the
+     * current {@link SearchBudget}, measured from this call. The grid is not
+     * changed.
+     *
+     * @return The solutions, each as n^2 cells in row-major order.
+     * @see SolutionIterator
+     */
+    public Stream<int[]> solutions() {
+        SearchControl enumeration = new SearchControl();
+        enumeration.start(getBudget());
+        return new SolutionIterator(sudoku.getGrid(), enumeration).stream();
+    }
+
+    /**
+     * Solves the Sudoku puzzle using the array-based Dancing Links engine.
+     *
+     * @return {@code true} if the Sudoku puzzle is solved successfully,
+     *         {@code false} otherwise.
+     */
+    @Override
+    protected boolean doSolve() {
+        if (sudoku == null)
+            return false;
+        int found = engine.countSolutions(sudoku.getGrid(), getSolutionLimit());
+        recordSolutions(found);
+        return found >= getSolutionLimit();
+    }
+}
@@ -6,6 +6,10 @@ import sudoku.solver.dancinglinks.AlgorithmX;
  * The DancingLinks class is an implementation of a Sudoku solver using the
  * Dancing Links algorithm, which is a technique for solving the exact cover
  * problem efficiently. This class extends the Solver base class.
+ * <p>
+ * One {@link AlgorithmX} is kept per instance, so its matrix nodes are
+ * allocated once and relinked for every puzzle instead of rebuilt.
+ * </p>
  * 
  * <p>
  * Time Complexity (Worst Case):
@@ -17,6 +21,7 @@ import sudoku.solver.dancinglinks.AlgorithmX;
  * </ul>
  */
 public class DancingLinksX extends Solver {
+    private final AlgorithmX solver = new AlgorithmX();
 
     /**
      * Constructs a new DancingLinks solver instance with the name "Dancing Links".
@@ -41,9 +46,17 @@ public class DancingLinksX extends Solver {
      *         </p>
      */
     @Override
-    public boolean solve() {
-        AlgorithmX solver = new AlgorithmX();
+    protected boolean doSolve() {
         solver.setSudoku(sudoku);
-        return solver.solve();
+        solver.setBudget(getBudget());
+        solver.setStatsEnabled(stats != null);
+
+        int found = solver.countSolutions(getSolutionLimit());
+        recordSolutions(found); // The first solution is already in the shared grid
+        control.absorb(solver.control); // The inner solver did the counting
+        StopReason reason = solver.getStopReason();
+        if (reason != StopReason.SOLVED && reason != StopReason.EXHAUSTED)
+            control.stop(reason); // Report the budget limit that was hit
+        return found >= getSolutionLimit();
     }
 }
@@ -0,0 +1,153 @@
+package sudoku.solver;
+
+/**
+ * Primitive domain storage for forward checking, indexed by cell number
+ * (row * size + col).
+ * <p>
+ * Each domain is a bit mask in an {@code int[]}: bit {@code v - 1} is set
+ * while {@code v} is still possible. Every removal is pushed onto an undo
+ * trail of (cell, bit) pairs, so a search can take a {@link #mark()} before a
+ * trial value and {@link #undoTo(int)} afterwards. Nothing on the hot path
+ * boxes a value or builds a key.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #load}: O(n^2), where n is the size of the grid.
+ * - {@link #removeFromPeers}: O(1) - exactly 20 peers are visited.
+ * - {@link #undoTo(int)}: O(k), k being the number of removals undone.
+ */
+public class DomainStore {
+    private static final int MAX_CELLS = CandidateState.MAX_SIZE * CandidateState.MAX_SIZE;
+
+    /**
+     * Upper bound on live trail entries: each (cell, value) pair can be removed
+     * at most once along a single search path.
+     */
+    private static final int TRAIL_CAPACITY = MAX_CELLS * CandidateState.MAX_SIZE;
+
+    private final int[] domain = new int[MAX_CELLS];
+    private final boolean[] assigned = new boolean[MAX_CELLS];
+    private int cells;
+    private int size;
+    private CandidateState state;
+
+    private final int[] trailCells = new int[TRAIL_CAPACITY];
+    private final int[] trailBits = new int[TRAIL_CAPACITY];
+    private int trailSize;
+
+    /**
+     * Initialises the domains from a grid and its occupancy masks. Filled cells
+     * are marked assigned; empty cells get every value that is currently legal.
+     *
+     * @param grid  The grid being solved.
+     * @param state Occupancy masks already loaded from {@code grid}.
+     */
+    public void load(int[][] grid, CandidateState state) {
+        this.state = state;
+        size = state.size();
+        cells = size * size;
+        trailSize = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / size, col = cell % size;
+            assigned[cell] = grid[row][col] != 0;
+            domain[cell] = assigned[cell] ? 0 : state.candidates(row, col);
+        }
+    }
+
+    /**
+     * Returns the domain mask of a cell.
+     *
+     * @param cell The cell index.
+     * @return A mask where bit {@code v - 1} is set if {@code v} is possible.
+     */
+    public int domain(int cell) {
+        return domain[cell];
+    }
+
+    /**
+     * Marks a cell as assigned, so it is no longer selected or pruned.
+     *
+     * @param cell The cell index.
+     */
+    public void assign(int cell) {
+        assigned[cell] = true;
+    }
+
+    /**
+     * Marks a cell as unassigned again.
+     *
+     * @param cell The cell index.
+     */
+    public void unassign(int cell) {
+        assigned[cell] = false;
+    }
+
+    /**
+     * Selects the unassigned cell with the smallest domain (MRV). Stops as soon
+     * as a domain of size 0 or 1 is found.
+     *
+     * @return The cell index, or -1 if every cell is assigned.
+     */
+    public int selectMinDomain() {
+        int selected = -1;
+        int minSize = size + 1;
+
+        for (int cell = 0; cell < cells; cell++) {
+            if (!assigned[cell]) {
+                int domainSize = Integer.bitCount(domain[cell]);
+                if (domainSize < minSize) {
+                    minSize = domainSize;
+                    selected = cell;
+                    if (domainSize <= 1)
+                        break;
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Removes a value from the domain of every unassigned peer of a cell,
+     * recording each removal on the trail.
+     *
+     * @param cell  The cell that has just been assigned.
+     * @param value The value assigned to it.
+     * @return {@code false} if some peer's domain became empty, {@code true}
+     *         otherwise.
+     */
+    public boolean removeFromPeers(int cell, int value) {
+        int bit = CandidateState.bit(value);
+        for (int peer : state.peers(cell)) {
+            if (!assigned[peer] && (domain[peer] & bit) != 0) {
+                domain[peer] &= ~bit;
+                trailCells[trailSize] = peer;
+                trailBits[trailSize] = bit;
+                trailSize++;
+                if (domain[peer] == 0)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current trail position, to be passed to {@link #undoTo(int)}.
+     *
+     * @return The number of removals currently recorded.
+     */
+    public int mark() {
+        return trailSize;
+    }
+
+    /**
+     * Restores every removal recorded after the given mark, most recent first.
+     *
+     * @param mark A value previously returned by {@link #mark()}.
+     */
+    public void undoTo(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            domain[trailCells[trailSize]] |= trailBits[trailSize];
+        }
+    }
+}
@@ -20,6 +20,12 @@ package sudoku.solver;
  */
 public class MRVBacktracking extends Solver {
 
+    /**
+     * Candidate-count buckets used to pick the most constrained cell without
+     * rescanning the grid.
+     */
+    private final MRVTracker tracker = new MRVTracker(state);
+
     /**
      * Constructs a new MRVBacktracking solver with the name "Backtracking with
      * MRV".
@@ -41,8 +47,12 @@ public class MRVBacktracking extends Solver {
      *         </p>
      */
     @Override
-    public boolean solve() {
-        return solveWithMRV(sudoku.getGrid());
+    protected boolean doSolve() {
+        int[][] grid = sudoku.getGrid();
+        if (!state.load(grid))
+            return false;
+        tracker.load(grid);
+        return solveWithMRV(grid, 0);
     }
 
     /**
@@ -50,67 +60,47 @@ public class MRVBacktracking extends Solver {
      * This method selects the cell with the least valid options, tries placing
      * numbers,
      * and backtracks if necessary.
+     * <p>
+     * The cell is taken from the {@link MRVTracker} buckets, so selection costs
+     * at most ten bucket lookups and allocates nothing per search node.
+     * </p>
      *
-     * @param grid The current state of the Sudoku grid.
-     * @return true if the puzzle is solved, false otherwise.
+     * @param grid  The current state of the Sudoku grid.
+     * @param depth The number of values placed by the search so far.
+     * @return true once the solution limit is reached, false otherwise.
      *         <p>
      *         Big O Complexity: O(9^(n^2)) in the worst case.
      *         </p>
      */
-    private boolean solveWithMRV(int[][] grid) {
-        int[] cell = selectCellWithMRV(grid);
-        if (cell == null)
-            return true; // Puzzle solved
+    private boolean solveWithMRV(int[][] grid, int depth) {
+        if (control.countNode())
+            return false; // Stopped by the search budget
+        if (stats != null)
+            stats.recordDepth(depth);
 
-        int row = cell[0], col = cell[1];
-        for (int num = 1; num <= SIZE; num++) {
-            if (isValid(row, col, num)) {
-                grid[row][col] = num;
+        int cell = tracker.selectCell();
+        if (cell < 0)
+            return onSolution(); // Puzzle solved
 
-                if (solveWithMRV(grid)) // Recursively solve with the new grid state
-                    return true;
+        int row = cell / grid.length, col = cell % grid.length;
+        int mask = state.candidates(row, col); // Empty when the cell is a dead end
+        if (stats != null)
+            stats.recordCandidateCheck();
+        while (mask != 0) {
+            int num = Integer.numberOfTrailingZeros(mask) + 1;
+            mask &= mask - 1;
 
-                grid[row][col] = 0; // Backtrack
-            }
-        }
-        return false;
-    }
+            grid[row][col] = num;
+            tracker.place(cell, num);
 
-    /**
-     * Selects the cell with the minimum number of valid options (MRV heuristic).
-     * This method iterates through all unassigned cells and counts the number of
-     * valid numbers
-     * that can be placed in each cell. It selects the cell with the least valid
-     * options.
-     *
-     * @param grid The current state of the Sudoku grid.
-     * @return The row and column of the cell with the least valid options, or null
-     *         if no unassigned cells exist.
-     *         <p>
-     *         Big O Complexity: O(n^2 * n) = O(n^3) in the worst case, where n is
-     *         the size of the grid.
-     *         </p>
-     */
-    private int[] selectCellWithMRV(int[][] grid) {
-        int minCount = SIZE + 1;
-        int[] selected = null;
+            if (solveWithMRV(grid, depth + 1)) // Recursively solve with the new grid state
+                return true;
 
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (grid[row][col] == 0) { // Only consider unassigned cells
-                    int count = 0;
-                    for (int num = 1; num <= SIZE; num++) {
-                        if (isValid(row, col, num))
-                            count++; // Count valid numbers
-                    }
-                    if (count < minCount) {
-                        minCount = count;
-                        selected = new int[] { row, col }; // Select the cell with the least valid options
-                    }
-                }
-            }
+            tracker.unplace(cell, num); // Backtrack
+            grid[row][col] = 0;
+            if (stats != null)
+                stats.recordBacktrack();
         }
-
-        return selected; // Return the most constrained cell
+        return false;
     }
 }
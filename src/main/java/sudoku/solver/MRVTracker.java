@@ -0,0 +1,166 @@
+package sudoku.solver;
+
+/**
+ * Incremental Minimum Remaining Values bookkeeping on top of a
+ * {@link CandidateState}.
+ * <p>
+ * Every empty cell is kept in one of size + 1 buckets, indexed by how many
+ * candidates it has left (0..9 on a 9x9 grid). Buckets are doubly linked lists stored in
+ * plain {@code int} arrays, so moving a cell between buckets and picking the
+ * most constrained cell allocate nothing. Placing a value only touches the 20
+ * peers of the cell, and only those that actually lose (or regain) that value
+ * change bucket.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #load(int[][])}: O(n^2), where n is the size of the grid.
+ * - {@link #place} and {@link #unplace}: O(1) - at most 20 peers are updated
+ * on a 9x9 grid.
+ * - {@link #selectCell()}: O(n) - at most n + 1 bucket heads are inspected.
+ */
+public class MRVTracker {
+    private static final int MAX_CELLS = CandidateState.MAX_SIZE * CandidateState.MAX_SIZE;
+    private static final int NONE = -1;
+
+    private final CandidateState state;
+
+    /** Candidate count of each empty cell. */
+    private final int[] count = new int[MAX_CELLS];
+    /** Whether each cell is currently empty. */
+    private final boolean[] empty = new boolean[MAX_CELLS];
+
+    /** First cell of each bucket, or {@link #NONE}. */
+    private final int[] head = new int[CandidateState.MAX_SIZE + 1];
+    private final int[] next = new int[MAX_CELLS];
+    private final int[] prev = new int[MAX_CELLS];
+
+    /** Side length of the grid being solved, and its number of buckets. */
+    private int size;
+    private int buckets;
+
+    /**
+     * Creates a tracker that keeps its counts in step with the given state.
+     *
+     * @param state The occupancy masks the counts are derived from.
+     */
+    public MRVTracker(CandidateState state) {
+        this.state = state;
+    }
+
+    /**
+     * Rebuilds the buckets from the grid. The {@link CandidateState} must
+     * already have been loaded from the same grid.
+     *
+     * @param grid The grid being solved.
+     *             <p>
+     *             Big O Complexity: O(n^2).
+     *             </p>
+     */
+    public void load(int[][] grid) {
+        size = state.size();
+        buckets = size + 1;
+        for (int i = 0; i < buckets; i++) {
+            head[i] = NONE;
+        }
+
+        for (int cell = 0; cell < size * size; cell++) {
+            int row = cell / size, col = cell % size;
+            empty[cell] = grid[row][col] == 0;
+            if (empty[cell]) {
+                count[cell] = Integer.bitCount(state.candidates(row, col));
+                link(cell);
+            }
+        }
+    }
+
+    /**
+     * Returns the empty cell with the fewest candidates. Stops at the first
+     * non-empty bucket, so a cell with 0 or 1 candidates is found immediately.
+     *
+     * @return The cell index (row * size + col), or -1 if no empty cell remains.
+     */
+    public int selectCell() {
+        for (int k = 0; k < buckets; k++) {
+            if (head[k] != NONE)
+                return head[k];
+        }
+        return NONE;
+    }
+
+    /**
+     * Places a value in an empty cell and updates the peers' candidate counts.
+     * The caller writes the grid itself.
+     *
+     * @param cell  The cell index.
+     * @param value The value placed.
+     */
+    public void place(int cell, int value) {
+        int row = cell / size, col = cell % size;
+        int bit = CandidateState.bit(value);
+
+        unlink(cell);
+        empty[cell] = false;
+
+        // A peer loses the value only if it was still a candidate before placing
+        for (int peer : state.peers(cell)) {
+            if (empty[peer] && (candidatesOf(peer) & bit) != 0) {
+                unlink(peer);
+                count[peer]--;
+                link(peer);
+            }
+        }
+        state.place(row, col, value);
+    }
+
+    /**
+     * Reverts a {@link #place} call, restoring the peers' candidate counts.
+     *
+     * @param cell  The cell index.
+     * @param value The value removed.
+     */
+    public void unplace(int cell, int value) {
+        int row = cell / size, col = cell % size;
+        int bit = CandidateState.bit(value);
+
+        state.unplace(row, col, value);
+
+        // After removal, every peer that can take the value again regains it
+        for (int peer : state.peers(cell)) {
+            if (empty[peer] && (candidatesOf(peer) & bit) != 0) {
+                unlink(peer);
+                count[peer]++;
+                link(peer);
+            }
+        }
+
+        empty[cell] = true;
+        count[cell] = Integer.bitCount(state.candidates(row, col));
+        link(cell);
+    }
+
+    private int candidatesOf(int cell) {
+        return state.candidates(cell / size, cell % size);
+    }
+
+    /** Pushes a cell onto the front of the bucket matching its count. */
+    private void link(int cell) {
+        int k = count[cell];
+        int first = head[k];
+        next[cell] = first;
+        prev[cell] = NONE;
+        if (first != NONE)
+            prev[first] = cell;
+        head[k] = cell;
+    }
+
+    /** Removes a cell from its current bucket. */
+    private void unlink(int cell) {
+        int p = prev[cell], n = next[cell];
+        if (p != NONE)
+            next[p] = n;
+        else
+            head[count[cell]] = n;
+        if (n != NONE)
+            prev[n] = p;
+    }
+}
@@ -0,0 +1,71 @@
+package sudoku.solver;
+
+import java.util.concurrent.ForkJoinPool;
+
+import sudoku.solver.dancinglinks.ParallelDLX;
+
+/**
+ * Sudoku solver that splits the Dancing Links search of a single puzzle across
+ * several threads with {@link ParallelDLX}. Worth using for hard or
+ * unsatisfiable puzzles; easy puzzles are solved faster by
+ * {@link DancingLinksArray}, which has no task overhead. Each instance owns a
+ * pool of worker threads, stopped by {@link #close()}.
+ *
+ * <p>
+ * Time Complexity (Worst Case):
+ * </p>
+ * <ul>
+ * <li>Constructor: O(1)</li>
+ * <li>{@link #solve()}: O(2^n / p), where n is the number of constraints to
+ * satisfy and p the number of threads.</li>
+ * </ul>
+ */
+public class ParallelDancingLinks extends Solver implements AutoCloseable {
+
+    /** Search levels expanded into separate tasks by default. */
+    private static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    private final ForkJoinPool pool;
+    private final ParallelDLX search;
+
+    /**
+     * Constructs a solver using every available core.
+     */
+    public ParallelDancingLinks() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a solver with its own pool of the given number of threads.
+     *
+     * @param threads Number of worker threads.
+     */
+    public ParallelDancingLinks(int threads) {
+        super("Dancing Links (Parallel)");
+        this.pool = new ForkJoinPool(threads);
+        this.search = new ParallelDLX(pool, DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Solves the Sudoku puzzle with the parallel Dancing Links search.
+     *
+     * @return {@code true} if the Sudoku puzzle is solved successfully,
+     *         {@code false} otherwise.
+     */
+    @Override
+    protected boolean doSolve() {
+        if (sudoku == null)
+            return false;
+        int found = search.countSolutions(sudoku.getGrid(), control, getSolutionLimit());
+        recordSolutions(found);
+        return found >= getSolutionLimit();
+    }
+
+    /**
+     * Stops the worker threads. A solve already running is finished first.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,316 @@
+package sudoku.solver;
+
+import sudoku.model.SudokuConstant;
+
+/**
+ * Fills the cells of a grid that follow from the givens by simple logic,
+ * without guessing.
+ * <p>
+ * Candidates are kept as one bit mask per cell, as in {@link DomainStore}, on
+ * grids of any supported size.
+ * {@link #propagate(int[][])} applies the following rules until none of them
+ * changes anything:
+ * </p>
+ * <ul>
+ * <li>naked single: a cell with one candidate takes it;</li>
+ * <li>hidden single: a value with one possible cell in a row, column or box
+ * goes there;</li>
+ * <li>locked candidates: a value whose cells in a box all lie in one row or
+ * column is removed from the rest of that line (pointing), and a value whose
+ * cells in a line all lie in one box is removed from the rest of that box
+ * (claiming).</li>
+ * </ul>
+ * <p>
+ * Every placement follows from the puzzle, so the solutions are exactly those
+ * of the original grid. Many easy and medium puzzles are solved outright; the
+ * others are handed to the search with fewer empty cells. A solver runs it
+ * before its search when {@link Solver#setPropagationEnabled(boolean)} is set.
+ * Locked candidates can be switched off, which is how the generator tells
+ * puzzles solved by singles alone from harder ones. An instance is reusable
+ * but not thread-safe.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #propagate(int[][])}: O(n^2) per round for the singles and the
+ * locked candidates, with at most one round per filled cell or
+ * removed candidate.
+ */
+public class Propagator {
+    /** Returned by {@link #propagate(int[][])} when the grid has no solution. */
+    public static final int CONTRADICTION = -1;
+
+    private final CandidateState state = new CandidateState();
+
+    /** Whether the locked candidates rule is applied. */
+    private final boolean lockedCandidates;
+
+    /** Side length, box size, cell count and full value mask of the grid. */
+    private int size;
+    private int box;
+    private int cells;
+    private int all;
+
+    /**
+     * The cells of the 3 * size units: rows first, then columns, then boxes,
+     * each listed in reading order. Rebuilt when the grid size changes.
+     */
+    private int[][] units = new int[0][];
+
+    /** Candidates of every row, then column, within each box it crosses. */
+    private final int[] segments = new int[2 * CandidateState.MAX_SIZE * SudokuConstant.MAX_BOX_SIZE];
+
+    /** Candidate mask of every empty cell; 0 for a filled cell. */
+    private final int[] candidates = new int[CandidateState.MAX_SIZE * CandidateState.MAX_SIZE];
+    private int[][] grid;
+    private int empty;
+    private boolean failed;
+
+    /**
+     * Creates a propagator that applies every rule.
+     */
+    public Propagator() {
+        this(true);
+    }
+
+    /**
+     * Creates a propagator.
+     *
+     * @param lockedCandidates {@code false} to apply only the naked and hidden
+     *                         singles.
+     */
+    public Propagator(boolean lockedCandidates) {
+        this.lockedCandidates = lockedCandidates;
+    }
+
+    /**
+     * Fills every cell that the rules above determine, writing the values into
+     * the grid.
+     *
+     * @param grid The grid, with 0 for empty cells.
+     * @return The number of cells filled, or {@link #CONTRADICTION} if the
+     *         givens conflict or the rules show that the puzzle has no
+     *         solution. The grid may be partly filled in the latter case.
+     */
+    public int propagate(int[][] grid) {
+        if (!state.load(grid))
+            return CONTRADICTION;
+        if (state.size() != size)
+            layOut(state.size());
+        this.grid = grid;
+        failed = false;
+        empty = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / size, col = cell % size;
+            if (grid[row][col] == 0) {
+                candidates[cell] = state.candidates(row, col);
+                empty++;
+                if (candidates[cell] == 0)
+                    failed = true;
+            } else {
+                candidates[cell] = 0;
+            }
+        }
+
+        int before = empty;
+        while (!failed && empty > 0 && (nakedSingles() || hiddenSingles()
+                || (lockedCandidates && lockedCandidates()))) {
+            // Locked candidates only run once the cheaper rules are stuck
+        }
+        this.grid = null;
+        return failed ? CONTRADICTION : before - empty;
+    }
+
+    /**
+     * Returns whether the last call to {@link #propagate(int[][])} filled
+     * every cell.
+     *
+     * @return {@code true} if the grid it was given is now solved.
+     */
+    public boolean isComplete() {
+        return empty == 0 && !failed;
+    }
+
+    /**
+     * Places every cell that has a single candidate.
+     *
+     * @return {@code true} if a cell was filled.
+     */
+    private boolean nakedSingles() {
+        boolean changed = false;
+        for (int cell = 0; cell < cells && !failed; cell++) {
+            int mask = candidates[cell];
+            if (mask != 0 && (mask & (mask - 1)) == 0) {
+                place(cell, Integer.numberOfTrailingZeros(mask) + 1);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Places every value that has a single possible cell in some unit.
+     *
+     * @return {@code true} if a cell was filled.
+     */
+    private boolean hiddenSingles() {
+        boolean changed = false;
+        for (int[] unit : units) {
+            int once = 0, twice = 0, placed = 0;
+            for (int cell : unit) {
+                int mask = candidates[cell];
+                if (mask == 0)
+                    placed |= CandidateState.bit(grid[cell / size][cell % size]);
+                twice |= once & mask;
+                once |= mask;
+            }
+            if ((once | placed) != all) {
+                failed = true; // Some value has nowhere to go in this unit
+                return false;
+            }
+
+            int hidden = once & ~twice;
+            while (hidden != 0) {
+                int bit = hidden & -hidden;
+                hidden &= hidden - 1;
+                int target = -1;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0)
+                        target = cell;
+                }
+                if (target < 0) {
+                    failed = true; // Its only cell took another hidden single
+                    return false;
+                }
+                place(target, Integer.numberOfTrailingZeros(bit) + 1);
+                changed = true;
+                if (failed)
+                    return false;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the candidates excluded by pointing and claiming.
+     * <p>
+     * Every line crosses {@code box} boxes, and the union of its candidates
+     * within each box is one segment mask. A value of a segment missing from
+     * the other segments of its box is confined to the line (pointing), and one
+     * missing from the other segments of its line is confined to the box
+     * (claiming), so each rule is a few mask operations covering every value
+     * at once. Masks are not refreshed after an elimination within the pass;
+     * a stale mask only holds extra values, which can make a rule fire only
+     * when a value has no cell left in a unit, a contradiction either way.
+     * </p>
+     *
+     * @return {@code true} if a candidate was removed.
+     */
+    private boolean lockedCandidates() {
+        for (int line = 0; line < 2 * size; line++) {
+            int[] unit = units[line];
+            for (int s = 0; s < box; s++) {
+                int mask = 0;
+                for (int k = s * box; k < (s + 1) * box; k++)
+                    mask |= candidates[unit[k]];
+                segments[line * box + s] = mask;
+            }
+        }
+
+        boolean changed = false;
+        for (int b = 0; b < size && !failed; b++) {
+            int band = b / box, stack = b % box;
+            changed |= lockedInBox(band * box, stack);
+            changed |= lockedInBox(size + stack * box, band);
+        }
+        return changed;
+    }
+
+    /**
+     * Applies pointing and claiming to the lines crossing one box in one
+     * direction.
+     *
+     * @param first   The unit index of the first row (or column) crossing the
+     *                box.
+     * @param segment The segment of those lines that lies in the box.
+     * @return {@code true} if a candidate was removed.
+     */
+    private boolean lockedInBox(int first, int segment) {
+        boolean changed = false;
+        for (int i = 0; i < box; i++) {
+            int line = first + i;
+            int inBox = segments[line * box + segment];
+            int restOfBox = 0, restOfLine = 0;
+            for (int j = 0; j < box; j++) {
+                if (j != i)
+                    restOfBox |= segments[(first + j) * box + segment];
+                if (j != segment)
+                    restOfLine |= segments[line * box + j];
+            }
+
+            int pointing = inBox & ~restOfBox;
+            int claiming = inBox & ~restOfLine;
+            for (int j = 0; j < box; j++) {
+                if (j != segment && (pointing & segments[line * box + j]) != 0)
+                    changed |= eliminate(units[line], j, pointing);
+                if (j != i && (claiming & segments[(first + j) * box + segment]) != 0)
+                    changed |= eliminate(units[first + j], segment, claiming);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes candidates from one segment of a line.
+     *
+     * @param line    The cells of the line.
+     * @param segment The segment to clear, counted along the line.
+     * @param mask    The candidates to remove.
+     * @return {@code true} if a candidate was removed.
+     */
+    private boolean eliminate(int[] line, int segment, int mask) {
+        boolean changed = false;
+        for (int k = segment * box; k < (segment + 1) * box; k++) {
+            int cell = line[k];
+            if ((candidates[cell] & mask) != 0) {
+                changed = true;
+                if ((candidates[cell] &= ~mask) == 0)
+                    failed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Writes a value into an empty cell and removes it from the candidates of
+     * the cell's peers.
+     */
+    private void place(int cell, int value) {
+        grid[cell / size][cell % size] = value;
+        candidates[cell] = 0;
+        empty--;
+
+        int bit = CandidateState.bit(value);
+        for (int peer : state.peers(cell)) {
+            if ((candidates[peer] & bit) != 0 && (candidates[peer] &= ~bit) == 0)
+                failed = true;
+        }
+    }
+
+    /**
+     * Builds the unit tables of a grid size.
+     */
+    private void layOut(int n) {
+        size = n;
+        box = SudokuConstant.boxSizeOf(n);
+        cells = n * n;
+        all = state.all();
+        units = new int[3 * n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                units[i][j] = i * n + j;
+                units[n + i][j] = j * n + i;
+                units[2 * n + i][j] = (i / box * box + j / box) * n + i % box * box + j % box;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package sudoku.solver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on a single solve: a time limit, a maximum number of search nodes and
+ * an external {@link CancellationToken}. A limit of 0 (or a {@code null}
+ * token) means "no limit". Budgets are immutable; the time limit is turned
+ * into a deadline when the solve starts.
+ */
+public class SearchBudget {
+    /** A budget without any limit. */
+    public static final SearchBudget UNLIMITED = new SearchBudget(0L, 0L, null);
+
+    private final long timeoutNanos;
+    private final long maxNodes;
+    private final CancellationToken token;
+
+    /**
+     * Creates a budget.
+     *
+     * @param timeoutNanos Time limit in nanoseconds, or 0 for none.
+     * @param maxNodes     Maximum number of search nodes, or 0 for none.
+     * @param token        Token checked during the search, or {@code null}.
+     * @throws IllegalArgumentException if a limit is negative.
+     */
+    public SearchBudget(long timeoutNanos, long maxNodes, CancellationToken token) {
+        if (timeoutNanos < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        this.timeoutNanos = timeoutNanos;
+        this.maxNodes = maxNodes;
+        this.token = token;
+    }
+
+    /**
+     * @param amount The time limit.
+     * @param unit   The unit of {@code amount}.
+     * @return A budget limited only by time.
+     */
+    public static SearchBudget timeout(long amount, TimeUnit unit) {
+        return new SearchBudget(unit.toNanos(amount), 0L, null);
+    }
+
+    /**
+     * @param maxNodes The maximum number of search nodes.
+     * @return A budget limited only by node count.
+     */
+    public static SearchBudget nodes(long maxNodes) {
+        return new SearchBudget(0L, maxNodes, null);
+    }
+
+    /**
+     * @param token The token to poll.
+     * @return A budget limited only by the token.
+     */
+    public static SearchBudget token(CancellationToken token) {
+        return new SearchBudget(0L, 0L, token);
+    }
+
+    /**
+     * @return The time limit in nanoseconds, or 0 for none.
+     */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * @return The maximum number of search nodes, or 0 for none.
+     */
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * @return The cancellation token, or {@code null}.
+     */
+    public CancellationToken getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,201 @@
+package sudoku.solver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces a {@link SearchBudget} from inside a search loop.
+ * <p>
+ * Search code calls {@link #countNode()} once per node. The node limit is
+ * checked on every call; the clock, the cancellation token and the thread's
+ * interrupt flag are only checked every {@value #CHECK_INTERVAL} nodes, which
+ * keeps the per-node cost to an increment and two comparisons while still
+ * reacting within milliseconds. Once a limit is hit the control stays stopped,
+ * so every level of a recursive search unwinds immediately.
+ * </p>
+ * <p>
+ * Controls made by {@link #fork()} share one node count, which each fork
+ * adds to every {@value #CHECK_INTERVAL} nodes and when its sub-search is
+ * absorbed, so the node limit applies to the whole parallel search: it may be
+ * exceeded by at most {@value #CHECK_INTERVAL} nodes per running fork.
+ * </p>
+ * <p>
+ * The control also carries the optional {@link SearchStats} of the search.
+ * {@link #stats()} returns {@code null} while statistics are disabled, so
+ * search code guards every counter update with one {@code null} check.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #countNode()}: O(1).
+ */
+public class SearchControl {
+    /** Number of nodes between two checks of the clock and token. */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private long deadline;
+    private long maxNodes;
+    private CancellationToken token;
+
+    /** Nodes counted by all the forks of one search, or {@code null} before the first fork. */
+    private AtomicLong sharedNodes;
+    /** Whether this control was made by {@link #fork()} and adds to {@link #sharedNodes}. */
+    private boolean forked;
+
+    private long nodes;
+    private boolean stopped;
+    private volatile StopReason stopReason;
+
+    /** Detailed counters, or {@code null} when statistics are disabled. */
+    private SearchStats stats;
+
+    /**
+     * Creates a control without limits.
+     */
+    public SearchControl() {
+        start(SearchBudget.UNLIMITED);
+    }
+
+    /**
+     * Resets the counters and starts enforcing a budget. The time limit is
+     * measured from this call.
+     *
+     * @param budget The limits for the coming search.
+     */
+    public void start(SearchBudget budget) {
+        long timeout = budget.getTimeoutNanos();
+        this.deadline = timeout == 0 ? Long.MAX_VALUE : System.nanoTime() + timeout;
+        this.maxNodes = budget.getMaxNodes() == 0 ? Long.MAX_VALUE : budget.getMaxNodes();
+        this.token = budget.getToken();
+        this.sharedNodes = null;
+        this.forked = false;
+        this.nodes = 0;
+        this.stopped = false;
+        this.stopReason = null;
+        if (stats != null)
+            stats.reset();
+    }
+
+    /**
+     * Turns collection of the detailed {@link SearchStats} on or off.
+     *
+     * @param enabled Whether to collect statistics from the next search on.
+     */
+    public void setStatsEnabled(boolean enabled) {
+        if (!enabled)
+            stats = null;
+        else if (stats == null)
+            stats = new SearchStats();
+    }
+
+    /**
+     * @return The statistics being collected, or {@code null} if disabled.
+     */
+    public SearchStats stats() {
+        return stats;
+    }
+
+    /**
+     * Adds the node count and statistics of a finished parallel sub-search,
+     * created with {@link #fork()}, to this control. Callers running several
+     * sub-searches at once must synchronise on this control.
+     *
+     * @param child The control of the sub-search.
+     */
+    public void absorb(SearchControl child) {
+        nodes += child.nodes;
+        if (child.forked)
+            child.sharedNodes.addAndGet(child.nodes & (CHECK_INTERVAL - 1)); // The part not yet added
+        if (stats != null && child.stats != null)
+            stats.add(child.stats);
+    }
+
+    /**
+     * Creates a control for a parallel sub-search. It shares this control's
+     * deadline, token and node limit, and counts its nodes towards a total
+     * shared by every fork of the same search.
+     *
+     * @return A new control, to be used by one thread.
+     */
+    public synchronized SearchControl fork() {
+        if (sharedNodes == null)
+            sharedNodes = new AtomicLong(nodes);
+        SearchControl child = new SearchControl();
+        child.deadline = deadline;
+        child.maxNodes = maxNodes;
+        child.token = token;
+        child.sharedNodes = sharedNodes;
+        child.forked = true;
+        child.setStatsEnabled(stats != null);
+        return child;
+    }
+
+    /**
+     * Records one search node and checks the budget.
+     *
+     * @return {@code true} if the search must stop.
+     */
+    public boolean countNode() {
+        if (stopped)
+            return true;
+
+        long n = ++nodes;
+        if (n > maxNodes)
+            return stop(StopReason.NODE_LIMIT);
+        if ((n & (CHECK_INTERVAL - 1)) == 0) {
+            if (forked && sharedNodes.addAndGet(CHECK_INTERVAL) > maxNodes)
+                return stop(StopReason.NODE_LIMIT);
+            return checkLimits();
+        }
+        if (n == 1 && forked && sharedNodes.get() > maxNodes)
+            return stop(StopReason.NODE_LIMIT); // Other forks used up the budget
+        return false;
+    }
+
+    /**
+     * Checks the clock, the token and the interrupt flag.
+     *
+     * @return {@code true} if one of them requires the search to stop.
+     */
+    private boolean checkLimits() {
+        if (token != null && token.isCancelled())
+            return stop(StopReason.CANCELLED);
+        if (Thread.currentThread().isInterrupted())
+            return stop(StopReason.INTERRUPTED);
+        if (System.nanoTime() > deadline)
+            return stop(StopReason.DEADLINE);
+        return false;
+    }
+
+    /**
+     * Stops the search for the given reason. The first reason recorded wins.
+     *
+     * @param reason Why the search stops.
+     * @return Always {@code true}, for use in a return statement.
+     */
+    public boolean stop(StopReason reason) {
+        if (stopReason == null)
+            stopReason = reason;
+        stopped = true;
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the search was stopped by the budget.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * @return Why the search was stopped, or {@code null} if it was not.
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * @return The number of nodes counted since {@link #start}.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+}
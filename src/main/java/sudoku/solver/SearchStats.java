@@ -0,0 +1,134 @@
+package sudoku.solver;
+
+/**
+ * Counters describing the work done by one solve.
+ * <p>
+ * The node count is always available because the {@link SearchControl}
+ * maintains it for the node budget. The other counters are only collected
+ * when statistics are enabled with {@link Solver#setStatsEnabled(boolean)};
+ * otherwise the search code skips them after a single {@code null} check.
+ * </p>
+ * <ul>
+ * <li>nodes: calls of the recursive search.</li>
+ * <li>backtracks: values or rows that were tried and then undone.</li>
+ * <li>max depth: the longest chain of placements made by the search. The
+ * givens are not counted, except by {@link DancingLinksX}, whose matrix
+ * selects their rows during the search.</li>
+ * <li>candidate checks: legality queries answered while choosing values.</li>
+ * <li>covers / uncovers: column operations of the Dancing Links solvers.</li>
+ * </ul>
+ */
+public class SearchStats {
+    private long nodes;
+    private long backtracks;
+    private int maxDepth;
+    private long candidateChecks;
+    private long covers;
+    private long uncovers;
+
+    /** Records that a placement was undone. */
+    public void recordBacktrack() {
+        backtracks++;
+    }
+
+    /**
+     * Records that the search reached the given depth.
+     *
+     * @param depth The number of placements on the current path.
+     */
+    public void recordDepth(int depth) {
+        if (depth > maxDepth)
+            maxDepth = depth;
+    }
+
+    /** Records one legality query. */
+    public void recordCandidateCheck() {
+        candidateChecks++;
+    }
+
+    /** Records one column cover. */
+    public void recordCover() {
+        covers++;
+    }
+
+    /** Records one column uncover. */
+    public void recordUncover() {
+        uncovers++;
+    }
+
+    /** Clears every counter. */
+    void reset() {
+        nodes = 0;
+        backtracks = 0;
+        maxDepth = 0;
+        candidateChecks = 0;
+        covers = 0;
+        uncovers = 0;
+    }
+
+    /**
+     * Adds the counters of a parallel sub-search to this one.
+     *
+     * @param other The counters to add.
+     */
+    void add(SearchStats other) {
+        nodes += other.nodes;
+        backtracks += other.backtracks;
+        maxDepth = Math.max(maxDepth, other.maxDepth);
+        candidateChecks += other.candidateChecks;
+        covers += other.covers;
+        uncovers += other.uncovers;
+    }
+
+    void setNodes(long nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return The number of search nodes visited.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The number of placements undone.
+     */
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    /**
+     * @return The deepest search path, in placements.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return The number of legality queries.
+     */
+    public long getCandidateChecks() {
+        return candidateChecks;
+    }
+
+    /**
+     * @return The number of column covers.
+     */
+    public long getCovers() {
+        return covers;
+    }
+
+    /**
+     * @return The number of column uncovers.
+     */
+    public long getUncovers() {
+        return uncovers;
+    }
+
+    @Override
+    public String toString() {
+        return "nodes=" + nodes + ", backtracks=" + backtracks + ", maxDepth=" + maxDepth
+                + ", candidateChecks=" + candidateChecks + ", covers=" + covers + ", uncovers=" + uncovers;
+    }
+}
@@ -0,0 +1,175 @@
+package sudoku.solver;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import sudoku.io.BinaryFormat;
+
+/**
+ * A bounded least-recently-used map from canonical puzzles to their canonical
+ * solutions, shared by any number of {@link CachingSolver}s.
+ * <p>
+ * Puzzles and solutions are stored packed with {@link BinaryFormat#pack}, at
+ * {@value BinaryFormat#PACKED_SIZE} bytes each. A puzzle the solver proved
+ * unsolvable is stored too, so asking again is also a hit. When the cache is
+ * full, the least recently used entry is evicted. All methods are
+ * synchronized, so worker threads of a batch may share one cache.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #get}, {@link #put}: O(1) expected.
+ */
+public class SolutionCache {
+    /** Value stored for a puzzle without a solution. */
+    private static final byte[] NO_SOLUTION = new byte[0];
+
+    private final int capacity;
+    private final LinkedHashMap<Key, byte[]> map;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long skipped;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity The largest number of puzzles kept.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public SolutionCache(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.map = new LinkedHashMap<Key, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+                if (size() <= SolutionCache.this.capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Looks up a canonical puzzle and counts a hit or a miss.
+     *
+     * @param puzzle    The 81 cells of the canonical puzzle.
+     * @param solution  Receives the 81 cells of the canonical solution on a hit.
+     * @return {@code null} on a miss, otherwise whether the puzzle has a
+     *         solution.
+     */
+    synchronized Boolean get(byte[] puzzle, byte[] solution) {
+        byte[] packed = map.get(new Key(puzzle));
+        if (packed == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        if (packed == NO_SOLUTION)
+            return Boolean.FALSE;
+        BinaryFormat.unpack(packed, 0, solution);
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Stores the result of a solve.
+     *
+     * @param puzzle   The 81 cells of the canonical puzzle.
+     * @param solution The 81 cells of the canonical solution, or {@code null}
+     *                 if the puzzle has none.
+     */
+    synchronized void put(byte[] puzzle, byte[] solution) {
+        byte[] packed = NO_SOLUTION;
+        if (solution != null) {
+            packed = new byte[BinaryFormat.PACKED_SIZE];
+            BinaryFormat.pack(solution, packed, 0);
+        }
+        map.put(new Key(puzzle), packed);
+    }
+
+    /** Counts a puzzle that bypassed the cache because it had no canonical form. */
+    synchronized void recordSkip() {
+        skipped++;
+    }
+
+    /**
+     * @return The largest number of puzzles kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of puzzles currently kept.
+     */
+    public synchronized int size() {
+        return map.size();
+    }
+
+    /**
+     * @return The number of lookups that found the puzzle.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return The number of lookups that did not find the puzzle.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of entries dropped to stay within the capacity.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return The number of puzzles too symmetric to canonicalize, which were
+     *         solved without a lookup.
+     */
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Removes every entry and resets the counters.
+     */
+    public synchronized void clear() {
+        map.clear();
+        hits = misses = evictions = skipped = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SolutionCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, skipped=%d]",
+                map.size(), capacity, hits, misses, evictions, skipped);
+    }
+
+    /** A packed canonical puzzle with a precomputed hash. */
+    private static final class Key {
+        private final byte[] packed = new byte[BinaryFormat.PACKED_SIZE];
+        private final int hash;
+
+        Key(byte[] cells) {
+            BinaryFormat.pack(cells, packed, 0);
+            this.hash = Arrays.hashCode(packed);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(packed, ((Key) o).packed);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
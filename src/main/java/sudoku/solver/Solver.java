@@ -8,8 +8,22 @@ import sudoku.model.Sudoku;
  * position
  * on the Sudoku grid and provides a structure for solving the puzzle.
  * <p>
- * Concrete subclasses should implement the {@link #solve()} method to define
- * specific solving algorithms.
+ * Concrete subclasses should implement the {@link #doSolve()} method to define
+ * specific solving algorithms. {@link #solve()} wraps it with the
+ * {@link SearchBudget} bookkeeping, so subclasses only need to call
+ * {@code control.countNode()} once per search node and give up when it
+ * returns {@code true}.
+ * </p>
+ * <p>
+ * {@link #countSolutions(int)} runs the same search but keeps going after a
+ * solution. Search code reports every complete grid through
+ * {@link #onSolution()} and stops when it returns {@code true}; engines that
+ * count elsewhere report the total with {@link #recordSolutions(int)}.
+ * </p>
+ * <p>
+ * With {@link #setPropagationEnabled(boolean)}, {@link #doSolve()} receives
+ * the grid after the {@link Propagator} has filled the cells that follow by
+ * logic alone.
  * </p>
  * <p>
  * Big O Complexity:
@@ -21,9 +35,44 @@ import sudoku.model.Sudoku;
  */
 public abstract class Solver {
     protected Sudoku sudoku;
-    protected static final int SIZE = 9;
     protected String name;
 
+    /**
+     * Row, column and box occupancy masks shared by the search-based solvers.
+     * Subclasses load it from the grid at the start of a solve and keep it in
+     * step with every value they place or remove.
+     */
+    protected final CandidateState state = new CandidateState();
+
+    /**
+     * Enforces the budget of the current solve. Search loops call
+     * {@link SearchControl#countNode()} once per node.
+     */
+    protected final SearchControl control = new SearchControl();
+
+    /**
+     * Statistics of the current solve, or {@code null} when they are disabled.
+     * Subclasses update it behind a {@code null} check.
+     */
+    protected SearchStats stats;
+
+    private SearchBudget budget = SearchBudget.UNLIMITED;
+    private StopReason stopReason = StopReason.NOT_STARTED;
+    private final SearchStats lastStats = new SearchStats();
+
+    /** Logical pre-pass run before the search, or {@code null} if disabled. */
+    private Propagator propagator;
+    private int propagatedCells;
+    /** Copy of the givens, restored when the search finds nothing. */
+    private int[][] givens;
+
+    /** Solutions the current search looks for; 1 for {@link #solve()}. */
+    private int solutionLimit = 1;
+    private int solutionCount;
+    /** Copy of the first solution of a count, or {@code null}. */
+    private int[][] firstSolution;
+    private boolean firstSaved;
+
     /**
      * Constructs a new Solver with the specified name.
      *
@@ -37,13 +86,15 @@ public abstract class Solver {
      * Checks if placing a given value at the specified position in the Sudoku grid
      * is valid according to Sudoku rules.
      * <p>
-     * Checks the row, column, and 3x3 subgrid to ensure no conflicts.
+     * Checks the row, column, and subgrid to ensure no conflicts.
+     * This scans the grid directly; search loops should query {@link #state}
+     * instead, which answers the same question in O(1).
      * </p>
      *
      * Big O Complexity: O(n), where **n** is the size of the grid (typically 9 for
      * a 9x9 grid).
-     * - The method iterates through the row, column, and 3x3 subgrid, each
-     * requiring up to 9 checks.
+     * - The method iterates through the row, column, and subgrid, each
+     * requiring up to n checks.
      *
      * @param row   The row index where the value is to be placed (0-based index).
      * @param col   The column index where the value is to be placed (0-based
@@ -54,17 +105,18 @@ public abstract class Solver {
      */
     public boolean isValid(int row, int col, int value) {
         int[][] grid = sudoku.getGrid();
+        int size = sudoku.getSize(), box = sudoku.getBoxSize();
 
         // Check if the value already exists in the row or column
-        for (int i = 0; i < SIZE; i++) {
+        for (int i = 0; i < size; i++) {
             if (grid[row][i] == value || grid[i][col] == value)
                 return false;
         }
 
-        // Check if the value already exists in the 3x3 subgrid
-        int startRow = row - row % 3, startCol = col - col % 3;
-        for (int r = startRow; r < startRow + 3; r++) {
-            for (int c = startCol; c < startCol + 3; c++) {
+        // Check if the value already exists in the box
+        int startRow = row - row % box, startCol = col - col % box;
+        for (int r = startRow; r < startRow + box; r++) {
+            for (int c = startCol; c < startCol + box; c++) {
                 if (grid[r][c] == value)
                     return false;
             }
@@ -99,6 +151,91 @@ public abstract class Solver {
         return sudoku;
     }
 
+    /**
+     * Sets the limits applied to every following call to {@link #solve()}.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @param budget The time, node and cancellation limits of a solve.
+     */
+    public void setBudget(SearchBudget budget) {
+        this.budget = budget == null ? SearchBudget.UNLIMITED : budget;
+    }
+
+    /**
+     * Returns the limits applied to each solve.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @return The current budget, never {@code null}.
+     */
+    public SearchBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Enables or disables collection of detailed {@link SearchStats}. The node
+     * count is always collected.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @param enabled Whether the following solves collect statistics.
+     */
+    public void setStatsEnabled(boolean enabled) {
+        control.setStatsEnabled(enabled);
+    }
+
+    /**
+     * Enables or disables the {@link Propagator} pre-pass. When enabled, each
+     * solve first fills the cells that naked singles, hidden singles and
+     * locked candidates determine, and only searches if cells remain. A
+     * puzzle the pre-pass proves unsolvable is not searched at all. The
+     * solutions, and so {@link #countSolutions(int)}, are unchanged.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @param enabled Whether the following solves propagate first.
+     */
+    public void setPropagationEnabled(boolean enabled) {
+        propagator = enabled ? new Propagator() : null;
+    }
+
+    /**
+     * Returns the number of cells the pre-pass filled in the last solve; 0 when
+     * propagation is disabled.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @return The cells filled without search.
+     */
+    public int getPropagatedCells() {
+        return propagatedCells;
+    }
+
+    /**
+     * Returns the statistics of the last solve. Only the node count is filled
+     * in unless statistics were enabled.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @return The counters of the last call to {@link #solve()}.
+     */
+    public SearchStats getStats() {
+        return lastStats;
+    }
+
+    /**
+     * Returns why the last solve ended: solved, exhausted, or stopped by one of
+     * the budget limits.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @return The reason the last call to {@link #solve()} returned.
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
     /**
      * Returns the name of the solver algorithm.
      *
@@ -112,10 +249,167 @@ public abstract class Solver {
     }
 
     /**
-     * Solves the Sudoku puzzle.
+     * Solves the Sudoku puzzle within the current {@link SearchBudget}.
+     * <p>
+     * Starts the budget, runs {@link #doSolve()} and records the
+     * {@link StopReason}. A solve stopped by the budget returns {@code false}.
+     * </p>
+     *
+     * Big O Complexity: That of {@link #doSolve()}.
+     *
+     * @return {@code true} if the puzzle is solved, {@code false} otherwise.
+     */
+    public final boolean solve() {
+        return run(1) > 0;
+    }
+
+    /**
+     * Counts the solutions of the puzzle, stopping as soon as {@code limit}
+     * are found. A limit of 2 checks that a puzzle has a unique solution at
+     * about the cost of one solve.
+     * <p>
+     * If a solution was found, the grid holds the first one afterwards. The
+     * {@link StopReason} is {@link StopReason#SOLVED} when the count is exact
+     * or reached the limit, {@link StopReason#EXHAUSTED} for no solution, and
+     * the budget limit that was hit when the count is only a lower bound.
+     * </p>
+     *
+     * Big O Complexity: That of {@link #doSolve()}, searching the whole tree
+     * when there are fewer than {@code limit} solutions.
+     *
+     * @param limit The number of solutions after which to stop, at least 1.
+     * @return The number of solutions found, at most {@code limit}.
+     * @throws IllegalArgumentException if the limit is less than 1.
+     */
+    public final int countSolutions(int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be at least 1: " + limit);
+        return run(limit);
+    }
+
+    /**
+     * Runs one search for up to {@code limit} solutions and records its
+     * statistics and stop reason.
+     */
+    private int run(int limit) {
+        control.start(budget);
+        stats = control.stats();
+        solutionLimit = limit;
+        solutionCount = 0;
+        firstSaved = false;
+        propagatedCells = 0;
+
+        boolean reached = propagator == null ? doSolve() : propagateAndSolve();
+        if (reached && solutionCount == 0)
+            solutionCount = 1; // A solver that neither calls onSolution nor records a count
+        if (firstSaved)
+            restoreFirstSolution();
+        solutionLimit = 1;
+
+        lastStats.reset();
+        if (stats != null)
+            lastStats.add(stats);
+        lastStats.setNodes(control.getNodes());
+
+        if (solutionCount > 0 && (reached || !control.isStopped()))
+            stopReason = StopReason.SOLVED;
+        else if (control.isStopped())
+            stopReason = control.getStopReason();
+        else
+            stopReason = StopReason.EXHAUSTED;
+        return solutionCount;
+    }
+
+    /**
+     * Runs the pre-pass, then the search on the cells it left empty. A grid
+     * the pre-pass completes is reported without calling {@link #doSolve()}.
+     * If no solution is found the givens are put back.
+     */
+    private boolean propagateAndSolve() {
+        int[][] grid = sudoku.getGrid();
+        if (givens == null || givens.length != grid.length)
+            givens = new int[grid.length][grid.length];
+        for (int r = 0; r < grid.length; r++)
+            System.arraycopy(grid[r], 0, givens[r], 0, grid.length);
+
+        int filled = propagator.propagate(grid);
+        propagatedCells = Math.max(filled, 0);
+        boolean reached = false;
+        if (filled != Propagator.CONTRADICTION)
+            reached = propagator.isComplete() ? onSolution() : doSolve();
+
+        if (!reached && solutionCount == 0) {
+            for (int r = 0; r < grid.length; r++)
+                System.arraycopy(givens[r], 0, grid[r], 0, grid.length);
+        }
+        return reached;
+    }
+
+    /**
+     * Returns how many solutions the current search looks for: 1 for
+     * {@link #solve()}, the caller's limit for {@link #countSolutions(int)}.
+     * Solvers that delegate to another engine pass it on.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @return The solution limit of the current search.
+     */
+    protected final int getSolutionLimit() {
+        return solutionLimit;
+    }
+
+    /**
+     * Records a solution found by the search. The grid of {@link #sudoku} must
+     * hold the complete solution when this is called. The first solution of a
+     * count is copied, so the search may go on changing the grid.
+     *
+     * Big O Complexity: O(1) for {@link #solve()}; O(n^2) for the first
+     * solution of a count.
+     *
+     * @return {@code true} if the limit is reached and the search must stop.
+     */
+    protected final boolean onSolution() {
+        if (++solutionCount == 1 && solutionLimit > 1)
+            saveFirstSolution();
+        return solutionCount >= solutionLimit;
+    }
+
+    /**
+     * Records the number of solutions found by an engine that counts on its
+     * own, and that leaves the first solution in the grid itself.
+     *
+     * Big O Complexity: O(1).
+     *
+     * @param count The number of solutions found, at most the limit.
+     */
+    protected final void recordSolutions(int count) {
+        solutionCount = count;
+    }
+
+    private void saveFirstSolution() {
+        int[][] grid = sudoku.getGrid();
+        if (firstSolution == null || firstSolution.length != grid.length)
+            firstSolution = new int[grid.length][grid.length];
+        for (int r = 0; r < grid.length; r++)
+            System.arraycopy(grid[r], 0, firstSolution[r], 0, grid.length);
+        firstSaved = true;
+    }
+
+    private void restoreFirstSolution() {
+        int[][] grid = sudoku.getGrid();
+        for (int r = 0; r < grid.length; r++)
+            System.arraycopy(firstSolution[r], 0, grid[r], 0, grid.length);
+    }
+
+    /**
+     * Runs the solving algorithm.
      * <p>
      * Abstract method that must be implemented by subclasses to define the
      * specific solving algorithm (e.g., backtracking, dancing links, etc.).
+     * A search reports each complete grid with {@link #onSolution()} and
+     * stops when it returns {@code true}, or counts up to
+     * {@link #getSolutionLimit()} itself and calls
+     * {@link #recordSolutions(int)}.
      * </p>
      *
      * Big O Complexity: Depends on the specific algorithm implemented in
@@ -124,7 +418,9 @@ public abstract class Solver {
      * of O(9^(n^2)),
      * where **n** is the size of the grid.
      *
-     * @return {@code true} if the puzzle is solved, {@code false} otherwise.
+     * @return {@code true} if the search stopped because the solution limit
+     *         was reached, i.e. the puzzle is solved for {@link #solve()};
+     *         {@code false} otherwise.
      */
-    public abstract boolean solve();
+    protected abstract boolean doSolve();
 }
@@ -0,0 +1,21 @@
+package sudoku.solver;
+
+/**
+ * Why the last call to {@link Solver#solve()} returned.
+ */
+public enum StopReason {
+    /** The solver has not been run yet. */
+    NOT_STARTED,
+    /** A solution was found. */
+    SOLVED,
+    /** The whole search space was explored without finding a solution. */
+    EXHAUSTED,
+    /** The time limit of the {@link SearchBudget} ran out. */
+    DEADLINE,
+    /** The node limit of the {@link SearchBudget} was reached. */
+    NODE_LIMIT,
+    /** The {@link CancellationToken} of the budget was cancelled. */
+    CANCELLED,
+    /** The solving thread was interrupted. */
+    INTERRUPTED
+}
@@ -0,0 +1,105 @@
+package sudoku.solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import sudoku.io.PuzzleSource;
+import sudoku.io.SolutionStore;
+import sudoku.model.SudokuConstant;
+
+/**
+ * A solver that first looks puzzles up in a persistent {@link SolutionStore}.
+ * <p>
+ * A stored puzzle is answered by copying its solution onto the grid. Any
+ * other puzzle is solved by the wrapped solver, and its solution is added to
+ * the store, where this and every later process finds it. Unsolved puzzles
+ * are not stored. Puzzles are matched exactly; wrap a {@link CachingSolver}
+ * to also match isomorphs in memory. {@link #countSolutions(int)} with a
+ * limit above 1 bypasses the store, which keeps one solution per puzzle, and
+ * so do grids other than 9x9.
+ * </p>
+ *
+ * Big O Complexity:
+ * - Stored puzzle: O(n^2) for the copy.
+ * - Other puzzle: that of the wrapped solver.
+ */
+public class StoredSolver extends Solver {
+    private static final int N = SudokuConstant.N;
+
+    private final Solver delegate;
+    private final SolutionStore store;
+    private final byte[] puzzle = new byte[PuzzleSource.CELLS];
+    private final byte[] solution = new byte[PuzzleSource.CELLS];
+    private boolean lastHit;
+
+    /**
+     * Wraps a solver.
+     *
+     * @param delegate The solver used for puzzles not in the store.
+     * @param store    The store to read and fill, possibly shared.
+     */
+    public StoredSolver(Solver delegate, SolutionStore store) {
+        super("Stored " + delegate.getName());
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    /**
+     * @return {@code true} if the last solve was answered from the store.
+     */
+    public boolean wasHit() {
+        return lastHit;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if a new solution cannot be stored.
+     */
+    @Override
+    protected boolean doSolve() {
+        int[][] grid = sudoku.getGrid();
+        int limit = getSolutionLimit();
+        lastHit = false;
+        // The store holds one solution of each 9x9 puzzle
+        if (grid.length != N || limit > 1)
+            return solveWithDelegate(limit) >= limit;
+
+        for (int i = 0; i < puzzle.length; i++)
+            puzzle[i] = (byte) grid[i / N][i % N];
+
+        lastHit = store.get(puzzle, solution);
+        if (lastHit) {
+            for (int i = 0; i < solution.length; i++)
+                grid[i / N][i % N] = solution[i];
+            return true;
+        }
+
+        int found = solveWithDelegate(limit);
+        if (found == 0)
+            return false;
+
+        for (int i = 0; i < solution.length; i++)
+            solution[i] = (byte) grid[i / N][i % N];
+        try {
+            store.put(puzzle, solution);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return found >= limit;
+    }
+
+    private int solveWithDelegate(int limit) {
+        delegate.setSudoku(sudoku);
+        delegate.setBudget(getBudget());
+        delegate.setStatsEnabled(stats != null);
+
+        int found = delegate.countSolutions(limit);
+        recordSolutions(found);
+        control.absorb(delegate.control); // The wrapped solver did the counting
+        StopReason reason = delegate.getStopReason();
+        if (reason != StopReason.SOLVED && reason != StopReason.EXHAUSTED)
+            control.stop(reason); // Report the budget limit that was hit
+        return found;
+    }
+}
@@ -1,29 +1,50 @@
 package sudoku.solver.dancinglinks;
 
 import java.util.*;
+import sudoku.model.SudokuConstant;
 import sudoku.solver.Solver;
 
+/**
+ * Algorithm X over a Dancing Links matrix of {@link Node} objects.
+ * <p>
+ * The column headers and the four nodes of every candidate placement are
+ * allocated once per grid size and kept between solves. Each solve relinks
+ * them into the matrix of its puzzle, so reusing an instance does not
+ * allocate.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #solve()}: O(n^3) to relink the matrix, plus a search that is
+ * O(2^k) in the worst case for k constraints to satisfy.
+ */
 public class AlgorithmX extends Solver {
-    private ColumnNode root;
+    private final ColumnNode root = new ColumnNode();
     private List<Node> solution;
-    private int[][] exactCoverMatrix;
+    /** Side length and box size of the grid being solved. */
+    private int n;
+    private int box;
+
+    /** Column headers and row nodes of the current grid size, reused between solves. */
+    private ColumnNode[] columns;
+    private Node[] nodes;
 
     public AlgorithmX() {
         super("Algorithm X (Dancing Links)");
         solution = new ArrayList<>();
     }
 
-    // Validate the grid: 9x9, values 0-9
+    // Validate the grid: n x n for a supported box size, values 0-n
     private boolean isValidGrid(int[][] grid) {
-        if (grid == null || grid.length != 9) {
+        if (grid == null || SudokuConstant.boxSizeOf(grid.length) < 0) {
             return false;
         }
-        for (int i = 0; i < 9; i++) {
-            if (grid[i] == null || grid[i].length != 9) {
+        int n = grid.length;
+        for (int i = 0; i < n; i++) {
+            if (grid[i] == null || grid[i].length != n) {
                 return false;
             }
-            for (int j = 0; j < 9; j++) {
-                if (grid[i][j] < 0 || grid[i][j] > 9) {
+            for (int j = 0; j < n; j++) {
+                if (grid[i][j] < 0 || grid[i][j] > n) {
                     return false;
                 }
             }
@@ -31,81 +52,51 @@ public class AlgorithmX extends Solver {
         return true;
     }
 
-    /// STEP1 : create the exact cover matrix
-    // Build the exact cover matrix as an int 2D array
-    private void buildExactCoverMatrix() {
-        int[][] grid = sudoku.getGrid();
-        ///  step1.1 define constraints
-        int n = 9;
-        int constraints = 4; // Row-Column, Row-Number, Column-Number, Box-Number
-        int rows = n * n * n; // Possible placements: 9x9 cells x 9 numbers
-        int cols = n * n * constraints; // 4 constraints per cell
-
-        /// 324 X 729 MATRIX
-        exactCoverMatrix = new int[rows][cols];
-        int rowIdx = 0;
-        /// step1.2 : create the 729 row and 324 column matrix
-        for (int r = 0; r < n; r++) {
-            for (int c = 0; c < n; c++) {
-                for (int v = 1; v <= n; v++) {
-                    ///  this is used to handle for the provided hint
-                    ///  grid[r][c] != 0 meaning that the cell is already filled => dont need to generate possible row
-                    if (grid[r][c] != 0 && grid[r][c] != v) continue;
-                    /// step1.3 : create the row for the exact cover matrix
-                    ///  using the supporter createExactCoverRow to create the row.
-                    ///  each row will contains 4 number 1, one for each constraint
-                    exactCoverMatrix[rowIdx] = createExactCoverRow(r, c, v, n, cols);
-                    rowIdx++;
-                }
-            }
-        }
-
-        /// Trim the matrix to the actual number of rows used
-        int[][] trimmedMatrix = new int[rowIdx][cols];
-        for (int i = 0; i < rowIdx; i++) {
-            System.arraycopy(exactCoverMatrix[i], 0, trimmedMatrix[i], 0, cols);
-        }
-        exactCoverMatrix = trimmedMatrix;
-    }
-
-    /// Create a single row for the exact cover matrix
-    private int[] createExactCoverRow(int r, int c, int v, int n, int cols) {
-        int[] row = new int[cols];
-        int box = (r / 3) * 3 + c / 3;
-        ///  THIS IS JUST A FORMULA TO CREATE THE ROW.
+    /// STEP1 : compute the 4 constraint columns of a candidate placement
+    /// Every (r, c, v) covers exactly one column in each constraint block, so
+    /// the columns are computed arithmetically instead of being looked up in a
+    /// dense n^3 x 4n^2 matrix (729 x 324 for 9x9).
+    private void constraintColumns(int r, int c, int v, int[] out) {
+        int b = (r / box) * box + c / box;
 
         // Constraint 1: Row-Column (each cell has exactly one number)
-        int col1 = r * n + c;
+        out[0] = r * n + c;
         // Constraint 2: Row-Number (each number appears once per row)
-        int col2 = n * n + r * n + v - 1;
+        out[1] = n * n + r * n + v - 1;
         // Constraint 3: Column-Number (each number appears once per column)
-        int col3 = n * n * 2 + c * n + v - 1;
+        out[2] = n * n * 2 + c * n + v - 1;
         // Constraint 4: Box-Number (each number appears once per box)
-        int col4 = n * n * 3 + box * n + v - 1;
-
-        ///  EACH ROW HAVE 4 1s, one for each constraint ( 4 contrainsts )
-        row[col1] = 1;
-        row[col2] = 1;
-        row[col3] = 1;
-        row[col4] = 1;
+        out[3] = n * n * 3 + b * n + v - 1;
+    }
 
-        return row;
+    /// allocate the headers and the 4 nodes of every placement when the size changes
+    private void allocate() {
+        if (columns != null && columns.length == n * n * 4) {
+            return;
+        }
+        columns = new ColumnNode[n * n * 4];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnNode();
+        }
+        nodes = new Node[n * n * n * 4];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node();
+        }
     }
 
-    // Build the DLX matrix from the exact cover matrix
+    /// STEP2 : link the DLX matrix directly from the candidate placements
     private void buildDLXMatrix() {
-        /// step2.1 : create the DLX matrix
-        int cols = exactCoverMatrix[0].length;
-        int rows = exactCoverMatrix.length;
+        int[][] grid = sudoku.getGrid();
+        int cols = n * n * 4; // 4 constraints per cell
 
-        /// step2.2 :  Initializing header node (column node)
-        root = new ColumnNode();
-        ColumnNode[] columns = new ColumnNode[cols];
+        /// step2.1 :  Initializing header node (column node)
         ColumnNode prev = root;
         for (int i = 0; i < cols; i++) {
             ///  CIRCULAR LINKED LIST , the last node points to the first node
             ///  header : column <-> column0 <-> column2 <-> ... <-> columnN <-> column0
-            columns[i] = new ColumnNode();
+            ///  an empty column points to itself vertically
+            columns[i].up = columns[i].down = columns[i];
+            columns[i].size = 0;
             columns[i].right = root;
             columns[i].left = prev;
             prev.right = columns[i];
@@ -114,52 +105,67 @@ public class AlgorithmX extends Solver {
         root.left = columns[cols - 1];
         columns[cols - 1].right = root;
 
-        ///  step 2.3 : Build the DLX Matrix
-        // Build the DLX matrix
-        for (int rowIdx = 0; rowIdx < rows; rowIdx++) {
-            Node[] nodes = new Node[4];  /// each row have 4 1s => 4 nodes
-            int nodeCount = 0;     /// count the number of nodes in the row (will reach 4 after processing the 1s).
+        /// step2.2 : one matrix row per candidate placement
+        int[] rowCols = new int[4];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                for (int v = 1; v <= n; v++) {
+                    ///  grid[r][c] != 0 meaning that the cell is already filled => only its given value is a row
+                    if (grid[r][c] != 0 && grid[r][c] != v) continue;
 
-            // Create nodes for each 1 in the exact cover matrix row
-            for (int j = 0; j < cols; j++) {
-                if (exactCoverMatrix[rowIdx][j] == 1) {
-                    nodes[nodeCount] = new Node();
-                    nodes[nodeCount].rowIdx = rowIdx; // Store row index
-                    nodes[nodeCount].column = columns[j];
-                    nodes[nodeCount].column.size++;
-                    nodeCount++;
+                    constraintColumns(r, c, v, rowCols);
+                    ///  the row index is the placement itself, so decoding is arithmetic
+                    linkRow(r * n * n + c * n + v - 1, rowCols);
                 }
             }
+        }
+    }
 
-            ///  step 2.4 Link nodes horizontally
-            ///nodes[0] ↔ nodes[1] ↔ nodes[2] ↔ nodes[3] ↔ nodes[0].
-            for (int i = 0; i < nodeCount; i++) {
-                nodes[i].right = nodes[(i + 1) % nodeCount];
-                nodes[(i + 1) % nodeCount].left = nodes[i];
-            }
+    /// step2.3 : link the 4 pooled nodes of a row into their columns
+    private void linkRow(int rowIdx, int[] rowCols) {
+        int first = rowIdx * 4;  /// each row have 4 1s => 4 nodes, stored from rowIdx * 4
+        for (int i = 0; i < 4; i++) {
+            Node node = nodes[first + i];
+            node.rowIdx = rowIdx; // Store the encoded placement
+            node.column = columns[rowCols[i]];
+            node.column.size++;
+        }
 
-            ///  step 2.5 Link nodes vertically
-            for (int i = 0; i < nodeCount; i++) {
-                Node up = nodes[i].column.up;  /// get the up node of the column (or the last node added)
-                nodes[i].up = up; /// link the up node to the current node ( the current node is last node added)
-                nodes[i].down = nodes[i].column; /// link the down node to the column header( circular linked list)
-                up.down = nodes[i]; /// link the up node to the current node (the current node is last node added)
-                nodes[i].column.up = nodes[i]; /// link the column header to the current node (the current node is last node added)
-            }
+        ///  Link nodes horizontally
+        ///nodes[0] ↔ nodes[1] ↔ nodes[2] ↔ nodes[3] ↔ nodes[0].
+        for (int i = 0; i < 4; i++) {
+            nodes[first + i].right = nodes[first + (i + 1) % 4];
+            nodes[first + (i + 1) % 4].left = nodes[first + i];
         }
-    }
 
-    // Wrapper to build both matrices
-    private void buildMatrix() {
-        buildExactCoverMatrix();
-        buildDLXMatrix();
+        ///  Link nodes vertically
+        for (int i = 0; i < 4; i++) {
+            Node node = nodes[first + i];
+            Node up = node.column.up;  /// get the up node of the column (or the last node added)
+            node.up = up; /// link the up node to the current node ( the current node is last node added)
+            node.down = node.column; /// link the down node to the column header( circular linked list)
+            up.down = node; /// link the up node to the current node (the current node is last node added)
+            node.column.up = node; /// link the column header to the current node (the current node is last node added)
+        }
     }
 
     /// Step3 : Algorithm X implementation
     private boolean search() {
+        if (stats != null) {
+            stats.recordDepth(solution.size());
+        }
         /// step3.1 : check if the root is empty
+        ///  givens are already in the grid; write the chosen rows on top and report the solution
         if (root.right == root) {
-            return true;
+            int[][] grid = sudoku.getGrid();
+            for (Node node : solution) {
+                applyPlacement(node.rowIdx, grid);
+            }
+            return onSolution();
+        }
+        ///  stop here if the search budget is used up
+        if (control.countNode()) {
+            return false;
         }
 
         /// step3.2 : find the column with the minimum size
@@ -184,6 +190,9 @@ public class AlgorithmX extends Solver {
             }
             if (search()) return true;
             solution.remove(solution.size() - 1);
+            if (stats != null) {
+                stats.recordBacktrack();
+            }
             for (Node j = r.left; j != r; j = j.left) {
                 uncover(j.column);
             }
@@ -194,6 +203,9 @@ public class AlgorithmX extends Solver {
 
     // Cover a column in the DLX matrix
     private void cover(ColumnNode c) {
+        if (stats != null) {
+            stats.recordCover();
+        }
         c.right.left = c.left;
         c.left.right = c.right;
         for (Node i = c.down; i != c; i = i.down) {
@@ -207,6 +219,9 @@ public class AlgorithmX extends Solver {
 
     // Uncover a column in the DLX matrix
     private void uncover(ColumnNode c) {
+        if (stats != null) {
+            stats.recordUncover();
+        }
         for (Node i = c.up; i != c; i = i.up) {
             for (Node j = i.left; j != i; j = j.left) {
                 j.column.size++;
@@ -218,35 +233,14 @@ public class AlgorithmX extends Solver {
         c.left.right = c;
     }
 
-    ///  final step : get the placement from the row
-    private int[] getPlacementFromRow(int rowIdx) {
-        int n = 9;
-        int[] row = exactCoverMatrix[rowIdx];
-
-        // Find the row-column constraint (first 81 columns)
-        int r = -1, c = -1;
-        for (int j = 0; j < 81; j++) {
-            if (row[j] == 1) {
-                r = j / n;
-                c = j % n;
-                break;
-            }
-        }
-
-        // Find the row-number constraint (columns 81 to 161) to get v
-        int v = -1;
-        for (int j = 81; j < 162; j++) {
-            if (row[j] == 1) {
-                v = (j - 81) % 9 + 1;
-                break;
-            }
-        }
-
-        return new int[]{r, c, v};
+    ///  final step : write the placement of a solution row into the grid
+    ///  rowIdx = r * n^2 + c * n + (v - 1), so r, c and v come straight out of it
+    private void applyPlacement(int rowIdx, int[][] grid) {
+        grid[rowIdx / (n * n)][rowIdx / n % n] = rowIdx % n + 1;
     }
 
     @Override
-    public boolean solve() {
+    protected boolean doSolve() {
         if (sudoku == null) {
             return false;
         }
@@ -256,28 +250,14 @@ public class AlgorithmX extends Solver {
             return false;
         }
 
+        n = grid.length;
+        box = SudokuConstant.boxSizeOf(n);
         solution.clear(); // Clear any previous solution
-        buildMatrix();
+        allocate();
+        buildDLXMatrix();
         
-        if (search()) {
-            int[][] result = new int[9][9];
-            // Copy initial grid values
-            for (int i = 0; i < 9; i++) {
-                System.arraycopy(grid[i], 0, result[i], 0, 9);
-            }
-            // Update with solution values
-            for (Node node : solution) {
-                int[] placement = getPlacementFromRow(node.rowIdx);
-                result[placement[0]][placement[1]] = placement[2];
-            }
-            // Update the sudoku grid
-            for (int i = 0; i < 9; i++) {
-                for (int j = 0; j < 9; j++) {
-                    grid[i][j] = result[i][j];
-                }
-            }
-            return true;
-        }
-        return false;
+        boolean solved = search();
+        solution.clear();
+        return solved;
     }
 }
\ No newline at end of file
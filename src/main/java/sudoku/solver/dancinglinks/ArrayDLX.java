@@ -0,0 +1,555 @@
+package sudoku.solver.dancinglinks;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import sudoku.model.SudokuConstant;
+import sudoku.solver.SearchControl;
+import sudoku.solver.SearchStats;
+
+/**
+ * Dancing Links engine that stores the whole matrix in parallel {@code int}
+ * arrays instead of one object per node.
+ * <p>
+ * Index 0 is the root, indices 1..4n^2 are the column headers of an n x n
+ * grid (324 for 9x9) and every node after that is a matrix entry.
+ * {@code left}, {@code right}, {@code up}, {@code down} and {@code column}
+ * hold the links of each index, and {@code size} holds the number of live
+ * nodes of each column. Cover and uncover walk contiguous arrays rather than
+ * chasing references across the heap.
+ * </p>
+ * <p>
+ * The full n^3-row Sudoku matrix of a grid size never changes, so it is built
+ * once into an immutable {@link Template} shared by every instance and thread.
+ * A solve copies the template into this engine's arrays with a few bulk copies
+ * and then covers the row of every given, instead of rebuilding the matrix
+ * without them. The row of placement (r, c, v) has index
+ * {@code p = r * n^2 + c * n + (v - 1)}, its nodes start at
+ * {@code firstNode + 4 * p}, and each node remembers {@code p} so the
+ * solution is decoded arithmetically.
+ * </p>
+ * <p>
+ * Grids of every size from 4x4 to 25x25 are supported. The engine adopts
+ * the size of the grid it loads, reallocating its arrays only when the size
+ * changes.
+ * </p>
+ *
+ * <p>
+ * {@link #countSolutions(int[][], int)} keeps searching after a solution
+ * until a limit is reached; every complete path goes through
+ * {@link #solutionFound()}, so the search loop is the same as for a single
+ * solution.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #solve(int[][])}: O(2^n) in the worst case, where n is the number of
+ * constraints to satisfy; preparing the matrix is a constant-size copy.
+ * - {@link #countSolutions(int[][], int)}: the same, searching the whole tree
+ * when there are fewer solutions than the limit.
+ */
+public class ArrayDLX {
+    private static final int ROOT = 0;
+
+    /** The matrix of the current grid size. */
+    private Template template;
+    /** Side length of the current grid. */
+    private int n;
+
+    int[] left;
+    int[] right;
+    int[] up;
+    int[] down;
+    int[] column;
+    int[] rowOf;
+    int[] size;
+
+    /** Columns already covered by a given, used to detect conflicting givens. */
+    private boolean[] covered;
+
+    /** Row nodes chosen on the current search path. */
+    private int[] solution;
+    private int depth;
+
+    /**
+     * Receives the solutions of an engine whose search is shared with other
+     * engines, in place of the engine's own count.
+     */
+    interface SolutionListener {
+        /**
+         * Called with the engine whose current path is a complete solution.
+         *
+         * @param engine The engine; {@link #writeSolution} decodes the path.
+         * @return {@code true} if the search must stop.
+         */
+        boolean onSolution(ArrayDLX engine);
+    }
+
+    /** Shared receiver of solutions, or {@code null} to count locally. */
+    private SolutionListener listener;
+
+    /** Local count: the solutions wanted, found so far, and the grid that receives the first. */
+    private int limit = 1;
+    private int found;
+    private int[][] target;
+
+    /** Raised by another thread to abandon the search; may be {@code null}. */
+    private AtomicBoolean cancelled;
+
+    /** Budget enforcement, polled once per search node. */
+    private SearchControl control = new SearchControl();
+
+    /** The control's statistics, cached once per solve; {@code null} when disabled. */
+    private SearchStats stats;
+
+    /** Templates built so far, by side length. */
+    private static final ConcurrentHashMap<Integer, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * The complete exact cover matrix for an empty grid of one size. Built on
+     * first use and published through {@link #TEMPLATES}; the arrays are never
+     * written after that.
+     */
+    private static final class Template {
+        final int n;
+        final int box;
+        final int columns;
+        final int firstNode;
+        final int nodes;
+
+        final int[] left;
+        final int[] right;
+        final int[] up;
+        final int[] down;
+        final int[] column;
+        final int[] rowOf;
+        final int[] size;
+
+        /**
+         * Returns the template of a grid size, building it on first use.
+         *
+         * @param n The side length of the grid.
+         */
+        static Template of(int n) {
+            return TEMPLATES.computeIfAbsent(n, Template::new);
+        }
+
+        private Template(int n) {
+            this.n = n;
+            this.box = SudokuConstant.boxSizeOf(n);
+            this.columns = n * n * 4;
+            this.firstNode = columns + 1;
+            this.nodes = firstNode + n * n * n * 4;
+            left = new int[nodes];
+            right = new int[nodes];
+            up = new int[nodes];
+            down = new int[nodes];
+            column = new int[nodes];
+            rowOf = new int[nodes];
+            size = new int[1 + columns];
+
+            for (int i = 0; i <= columns; i++) {
+                left[i] = i == 0 ? columns : i - 1;
+                right[i] = i == columns ? 0 : i + 1;
+                up[i] = i;
+                down[i] = i;
+                column[i] = i;
+            }
+
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) {
+                    for (int v = 1; v <= n; v++) {
+                        appendRow(r, c, v);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Appends the four nodes of placement (r, c, v), linking them
+         * horizontally and to the bottom of their columns.
+         */
+        private void appendRow(int r, int c, int v) {
+            int b = (r / box) * box + c / box;
+            int placement = r * n * n + c * n + v - 1;
+            int first = firstNode + 4 * placement;
+
+            // Header indices are shifted by one because index 0 is the root
+            linkNode(first, 1 + r * n + c, placement);
+            linkNode(first + 1, 1 + n * n + r * n + v - 1, placement);
+            linkNode(first + 2, 1 + n * n * 2 + c * n + v - 1, placement);
+            linkNode(first + 3, 1 + n * n * 3 + b * n + v - 1, placement);
+
+            for (int i = 0; i < 4; i++) {
+                right[first + i] = first + (i + 1) % 4;
+                left[first + (i + 1) % 4] = first + i;
+            }
+        }
+
+        /** Appends a node at the bottom of column {@code col}. */
+        private void linkNode(int node, int col, int placement) {
+            column[node] = col;
+            rowOf[node] = placement;
+            up[node] = up[col];
+            down[node] = col;
+            down[up[col]] = node;
+            up[col] = node;
+            size[col]++;
+        }
+    }
+
+    /**
+     * Allocates the arrays of a grid size, unless they already fit it. An
+     * engine allocates them on its first solve and keeps them while the grid
+     * size stays the same.
+     *
+     * @param t The template of the new size.
+     */
+    private void adopt(Template t) {
+        if (template == t)
+            return;
+        template = t;
+        n = t.n;
+        left = new int[t.nodes];
+        right = new int[t.nodes];
+        up = new int[t.nodes];
+        down = new int[t.nodes];
+        column = new int[t.nodes];
+        rowOf = new int[t.nodes];
+        size = new int[1 + t.columns];
+        covered = new boolean[1 + t.columns];
+        solution = new int[n * n];
+    }
+
+    /**
+     * Solves the puzzle in place.
+     *
+     * @param grid The grid, with 0 for empty cells. Filled in on success.
+     * @return {@code true} if a solution was found, {@code false} otherwise.
+     */
+    public boolean solve(int[][] grid) {
+        return countSolutions(grid, 1) > 0;
+    }
+
+    /**
+     * Counts the solutions of a puzzle, stopping once {@code limit} are found.
+     *
+     * @param grid  The grid, with 0 for empty cells. Receives the first
+     *              solution if there is one.
+     * @param limit The number of solutions after which to stop, at least 1.
+     * @return The number of solutions found, at most {@code limit}; fewer than
+     *         the real number if the control stopped the search.
+     */
+    public int countSolutions(int[][] grid, int limit) {
+        if (!load(grid))
+            return 0;
+        this.limit = limit;
+        this.found = 0;
+        this.target = grid;
+        search();
+        this.target = null;
+        return found;
+    }
+
+    /**
+     * Handles a complete path: passes it to the listener, or counts it and
+     * writes the first one into the target grid.
+     *
+     * @return {@code true} if the search must stop.
+     */
+    private boolean solutionFound() {
+        if (listener != null)
+            return listener.onSolution(this);
+        if (found++ == 0 && target != null)
+            writeSolution(target);
+        return found >= limit;
+    }
+
+    /**
+     * Prepares the matrix for a grid: restores the template and covers the
+     * givens, leaving the engine at search depth 0.
+     *
+     * @param grid The grid to solve.
+     * @return {@code false} if the grid is malformed or its givens conflict.
+     */
+    boolean load(int[][] grid) {
+        if (!isValidGrid(grid))
+            return false;
+        if (grid.length != n)
+            adopt(Template.of(grid.length));
+        reset();
+        depth = 0;
+        stats = null; // Covering the givens is preparation, not search
+        boolean consistent = applyGivens(grid);
+        stats = control.stats();
+        return consistent;
+    }
+
+    /**
+     * Writes the rows on the current search path into the grid.
+     *
+     * @param grid The grid to fill.
+     */
+    void writeSolution(int[][] grid) {
+        for (int i = 0; i < depth; i++) {
+            int placement = rowOf[solution[i]];
+            grid[placement / (n * n)][placement / n % n] = placement % n + 1;
+        }
+    }
+
+    /**
+     * Writes the rows on the current search path into a row-major array of
+     * n^2 cells.
+     *
+     * @param cells The cells to fill.
+     */
+    void writeSolution(int[] cells) {
+        for (int i = 0; i < depth; i++) {
+            int placement = rowOf[solution[i]];
+            cells[placement / n] = placement % n + 1;
+        }
+    }
+
+    /**
+     * @return The number of rows on the current search path.
+     */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * @return A node of the most recently selected row. Must not be called at
+     *         depth 0.
+     */
+    int lastSelected() {
+        return solution[depth - 1];
+    }
+
+    /**
+     * Makes this engine an exact copy of another one, including its current
+     * search path, so that the copy can continue that branch independently.
+     *
+     * @param other The engine to copy.
+     */
+    void copyFrom(ArrayDLX other) {
+        adopt(other.template);
+        int nodes = template.nodes;
+        System.arraycopy(other.left, 0, left, 0, nodes);
+        System.arraycopy(other.right, 0, right, 0, nodes);
+        System.arraycopy(other.up, 0, up, 0, nodes);
+        System.arraycopy(other.down, 0, down, 0, nodes);
+        System.arraycopy(other.column, 0, column, 0, nodes);
+        System.arraycopy(other.rowOf, 0, rowOf, 0, nodes);
+        System.arraycopy(other.size, 0, size, 0, 1 + template.columns);
+        System.arraycopy(other.solution, 0, solution, 0, other.depth);
+        depth = other.depth;
+    }
+
+    /**
+     * Sets the control that limits the search. The caller starts it.
+     *
+     * @param control The control polled once per search node.
+     */
+    public void setControl(SearchControl control) {
+        this.control = control;
+        this.stats = control.stats();
+    }
+
+    /**
+     * @return The control that limits the search.
+     */
+    SearchControl getControl() {
+        return control;
+    }
+
+    /**
+     * Sets a flag that makes {@link #search()} give up as soon as it is raised.
+     * Used to stop sibling searches once one of them has found a solution.
+     *
+     * @param cancelled The shared flag, or {@code null} to never stop early.
+     */
+    void setCancelFlag(AtomicBoolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Sends the solutions found by {@link #search()} to a listener shared with
+     * other engines instead of counting them here.
+     *
+     * @param listener The listener, or {@code null} to count locally.
+     */
+    void setListener(SolutionListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Checks that the grid is n x n for a supported size, with values 0-n.
+     *
+     * @param grid The grid to check.
+     * @return {@code true} if the grid can be turned into an exact cover matrix.
+     */
+    private static boolean isValidGrid(int[][] grid) {
+        if (grid == null || SudokuConstant.boxSizeOf(grid.length) < 0)
+            return false;
+        int size = grid.length;
+        for (int[] row : grid) {
+            if (row == null || row.length != size)
+                return false;
+            for (int value : row) {
+                if (value < 0 || value > size)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /** Restores the untouched matrix from the shared template. */
+    private void reset() {
+        Template t = template;
+        System.arraycopy(t.left, 0, left, 0, t.nodes);
+        System.arraycopy(t.right, 0, right, 0, t.nodes);
+        System.arraycopy(t.up, 0, up, 0, t.nodes);
+        System.arraycopy(t.down, 0, down, 0, t.nodes);
+        System.arraycopy(t.column, 0, column, 0, t.nodes);
+        System.arraycopy(t.rowOf, 0, rowOf, 0, t.nodes);
+        System.arraycopy(t.size, 0, size, 0, 1 + t.columns);
+        Arrays.fill(covered, false);
+    }
+
+    /**
+     * Selects the row of every given by covering its four columns.
+     *
+     * @param grid The grid being solved.
+     * @return {@code false} if two givens share a constraint, {@code true}
+     *         otherwise.
+     */
+    private boolean applyGivens(int[][] grid) {
+        int firstNode = template.firstNode;
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                int v = grid[r][c];
+                if (v == 0)
+                    continue;
+
+                int first = firstNode + 4 * (r * n * n + c * n + v - 1);
+                for (int j = first; j < first + 4; j++) {
+                    if (covered[column[j]])
+                        return false;
+                }
+                for (int j = first; j < first + 4; j++) {
+                    covered[column[j]] = true;
+                    cover(column[j]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Algorithm X: picks the column with the fewest rows, then tries each of
+     * its rows in turn.
+     *
+     * @return {@code true} once the solution limit is reached.
+     */
+    boolean search() {
+        if (right[ROOT] == ROOT)
+            return solutionFound();
+        if (control.countNode() || (cancelled != null && cancelled.get()))
+            return false;
+
+        int c = chooseColumn();
+        if (size[c] == 0)
+            return false;
+
+        cover(c);
+        for (int r = down[c]; r != c; r = down[r]) {
+            select(r);
+
+            if (search())
+                return true;
+
+            deselect(r);
+        }
+        uncover(c);
+        return false;
+    }
+
+    /**
+     * Returns whether every column is covered, i.e. the current path is a
+     * complete solution.
+     */
+    boolean isComplete() {
+        return right[ROOT] == ROOT;
+    }
+
+    /**
+     * Picks the uncovered column with the fewest rows, stopping early at a
+     * column of size 0 or 1. Must not be called when {@link #isComplete()}.
+     *
+     * @return The header index of the chosen column.
+     */
+    int chooseColumn() {
+        int c = right[ROOT];
+        int minSize = size[c];
+        for (int j = right[c]; j != ROOT && minSize > 1; j = right[j]) {
+            if (size[j] < minSize) {
+                minSize = size[j];
+                c = j;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Adds a row to the search path and covers its other columns. The row's
+     * own column must already be covered.
+     *
+     * @param r A node of the row.
+     */
+    void select(int r) {
+        solution[depth++] = r;
+        if (stats != null)
+            stats.recordDepth(depth);
+        for (int j = right[r]; j != r; j = right[j])
+            cover(column[j]);
+    }
+
+    /** Reverts {@link #select(int)} for the most recently selected row. */
+    void deselect(int r) {
+        depth--;
+        if (stats != null)
+            stats.recordBacktrack();
+        for (int j = left[r]; j != r; j = left[j])
+            uncover(column[j]);
+    }
+
+    /** Removes a column and every row that intersects it. */
+    void cover(int c) {
+        if (stats != null)
+            stats.recordCover();
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    /** Restores a column removed by {@link #cover(int)}, in reverse order. */
+    void uncover(int c) {
+        if (stats != null)
+            stats.recordUncover();
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
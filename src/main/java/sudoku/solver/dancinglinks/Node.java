@@ -43,7 +43,7 @@ package sudoku.solver.dancinglinks;
 public class Node {
     public Node left, right, up, down;
     public ColumnNode column;
-    public int rowIdx; // Store the exactCoverMatrix row index
+    public int rowIdx; // Encoded placement r * 81 + c * 9 + (v - 1)
 
     public Node() {
         left = right = up = down = this;
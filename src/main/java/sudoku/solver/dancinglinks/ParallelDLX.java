@@ -0,0 +1,195 @@
+package sudoku.solver.dancinglinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import sudoku.solver.SearchControl;
+import sudoku.solver.StopReason;
+
+/**
+ * Runs Algorithm X for a single puzzle on several threads.
+ * <p>
+ * The top {@code splitDepth} levels of the search tree are expanded as
+ * fork-join tasks: at each of those levels the most constrained column is
+ * covered and every one of its rows becomes an independent subtree with its
+ * own copy of the {@link ArrayDLX} state. Below that depth a subtree is
+ * searched sequentially. Idle workers steal pending subtrees. Every subtree
+ * reports its solutions to one shared counter; the first solution is written
+ * to the caller's grid, and reaching the limit raises a shared flag that makes
+ * every other search return.
+ * </p>
+ * <p>
+ * Each subtree enforces the caller's budget through its own fork of the
+ * {@link SearchControl}. The forks share one node count, so a node limit
+ * bounds the whole search rather than each subtree. A subtree that runs out
+ * of budget stops its siblings as well and reports the reason to the caller's
+ * control. The pool workers never see an interrupt of the caller, so the
+ * caller waits for the search interruptibly and stops every subtree itself
+ * when it is interrupted, reporting {@link StopReason#INTERRUPTED}. The node counts
+ * and statistics of every finished subtree are added to the caller's control.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #solve(int[][], SearchControl)}: O(2^n / p) in the best case for p workers, plus
+ * one state copy per task, at most b^splitDepth for branching factor b.
+ */
+public class ParallelDLX {
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Creates a parallel search running on the given pool.
+     *
+     * @param pool       The pool that executes the subtrees.
+     * @param splitDepth Number of search levels expanded into separate tasks.
+     * @throws IllegalArgumentException if splitDepth is negative.
+     */
+    public ParallelDLX(ForkJoinPool pool, int splitDepth) {
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException("Split depth must not be negative");
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Solves the puzzle in place.
+     *
+     * @param grid    The grid of any supported size, with 0 for empty cells. Filled in on success.
+     * @param control The started control of the caller, whose budget applies
+     *                to every subtree.
+     * @return {@code true} if a solution was found, {@code false} otherwise.
+     */
+    public boolean solve(int[][] grid, SearchControl control) {
+        return countSolutions(grid, control, 1) > 0;
+    }
+
+    /**
+     * Counts the solutions of the puzzle, stopping once {@code limit} are
+     * found.
+     *
+     * @param grid    The grid of any supported size, with 0 for empty cells. Receives the first
+     *                solution found if there is one.
+     * @param control The started control of the caller, whose budget applies
+     *                to every subtree.
+     * @param limit   The number of solutions after which to stop, at least 1.
+     * @return The number of solutions found, at most {@code limit}.
+     */
+    public int countSolutions(int[][] grid, SearchControl control, int limit) {
+        ArrayDLX root = new ArrayDLX();
+        if (!root.load(grid))
+            return 0;
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger count = new AtomicInteger();
+        ArrayDLX.SolutionListener listener = engine -> {
+            int n = count.incrementAndGet();
+            if (n == 1)
+                engine.writeSolution(grid); // Only one thread sees 1
+            if (n < limit)
+                return false;
+            stop.set(true);
+            return true;
+        };
+
+        root.setCancelFlag(stop);
+        root.setListener(listener);
+        root.setControl(control.fork());
+        await(new Subtree(root, 0, stop, listener, control), stop, control);
+        return Math.min(count.get(), limit);
+    }
+
+    /**
+     * Runs the search on the pool and waits for it. Unlike
+     * {@link ForkJoinPool#invoke}, which holds back an interrupt until the
+     * task is done, an interrupt stops the search and is kept set.
+     */
+    private void await(Subtree task, AtomicBoolean stop, SearchControl control) {
+        pool.execute(task);
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            synchronized (control) {
+                control.stop(StopReason.INTERRUPTED);
+            }
+            stop.set(true);
+            task.quietlyJoin();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * One branch of the search tree, owning its engine exclusively.
+     */
+    private final class Subtree extends RecursiveAction {
+        private final ArrayDLX engine;
+        private final int level;
+        private final AtomicBoolean stop;
+        private final ArrayDLX.SolutionListener listener;
+        private final SearchControl parent;
+
+        Subtree(ArrayDLX engine, int level, AtomicBoolean stop, ArrayDLX.SolutionListener listener,
+                SearchControl parent) {
+            this.engine = engine;
+            this.level = level;
+            this.stop = stop;
+            this.listener = listener;
+            this.parent = parent;
+        }
+
+        @Override
+        protected void compute() {
+            if (stop.get())
+                return;
+
+            if (level >= splitDepth || engine.isComplete()) {
+                engine.search(); // Solutions go to the listener
+                synchronized (parent) {
+                    parent.absorb(engine.getControl());
+                }
+                if (engine.getControl().isStopped()) {
+                    // Out of budget: stop the siblings and report why
+                    synchronized (parent) {
+                        parent.stop(engine.getControl().getStopReason());
+                    }
+                    stop.set(true);
+                }
+                return;
+            }
+
+            int c = engine.chooseColumn();
+            if (engine.size[c] == 0)
+                return;
+            engine.cover(c);
+
+            // Every row but the last gets a copy; the last one reuses this engine
+            List<Subtree> children = new ArrayList<>();
+            int last = engine.up[c];
+            for (int r = engine.down[c]; r != last; r = engine.down[r]) {
+                ArrayDLX child = new ArrayDLX();
+                child.copyFrom(engine);
+                child.setCancelFlag(stop);
+                child.setListener(listener);
+                child.setControl(parent.fork());
+                child.select(r);
+                children.add(new Subtree(child, level + 1, stop, listener, parent));
+            }
+            engine.select(last);
+            children.add(new Subtree(engine, level + 1, stop, listener, parent));
+
+            invokeAll(children);
+        }
+    }
+}
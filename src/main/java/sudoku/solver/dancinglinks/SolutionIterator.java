@@ -0,0 +1,173 @@
+package sudoku.solver.dancinglinks;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import sudoku.solver.SearchControl;
+
+/**
+ * Enumerates the solutions of a puzzle one at a time, computing each only
+ * when it is asked for.
+ * <p>
+ * The recursive {@link ArrayDLX#search()} cannot pause, so this class runs the
+ * same Algorithm X with an explicit stack: the column chosen at every level
+ * is kept in {@code cols}, and the row tried at every level is the engine's
+ * search path. {@link #hasNext()} advances the search to the next complete
+ * path and suspends there; the following call undoes that path's last row and
+ * goes on from its next sibling. The state is the engine plus two arrays of
+ * at most n^2 entries, so memory stays constant however many solutions the
+ * puzzle has, and a consumer that takes k solutions only pays for the search
+ * up to the k-th.
+ * </p>
+ * <p>
+ * Solutions are returned as new arrays of n^2 cells in row-major order, 81
+ * for a 9x9 grid. The
+ * {@link SearchControl} is polled once per search node and ends the
+ * enumeration when it stops. An iterator is for one thread.
+ * </p>
+ *
+ * Big O Complexity:
+ * - {@link #next()}: amortised the search between two solutions, plus O(n^2)
+ * to decode the solution.
+ */
+public class SolutionIterator implements Iterator<int[]> {
+    private final ArrayDLX engine = new ArrayDLX();
+    private final SearchControl control;
+    private final int[] givens;
+
+    /** Column covered at each search level. */
+    private final int[] cols;
+
+    /** Whether the current path is a solution not yet returned by next(). */
+    private boolean ready;
+    /** Whether the current path is a returned solution to move past. */
+    private boolean resume;
+    private boolean done;
+
+    /**
+     * Prepares the enumeration of a puzzle without a search budget.
+     *
+     * @param grid The grid, with 0 for empty cells. It is read once and
+     *             never written.
+     */
+    public SolutionIterator(int[][] grid) {
+        this(grid, new SearchControl());
+    }
+
+    /**
+     * Prepares the enumeration of a puzzle.
+     *
+     * @param grid    The grid, with 0 for empty cells. It is read once and
+     *                never written.
+     * @param control The started control limiting the whole enumeration.
+     */
+    public SolutionIterator(int[][] grid, SearchControl control) {
+        this.control = control;
+        engine.setControl(control);
+        done = !engine.load(grid);
+        int n = done ? 0 : grid.length;
+        givens = new int[n * n];
+        cols = new int[n * n + 1];
+        for (int r = 0; r < n; r++)
+            System.arraycopy(grid[r], 0, givens, r * n, n);
+    }
+
+    /**
+     * Returns a sequential, lazy stream of the solutions of a puzzle.
+     *
+     * @param grid The grid, with 0 for empty cells.
+     * @return The solutions, each as n^2 cells in row-major order.
+     */
+    public static Stream<int[]> stream(int[][] grid) {
+        return new SolutionIterator(grid).stream();
+    }
+
+    /**
+     * Returns a sequential, lazy stream over the remaining solutions of this
+     * iterator.
+     *
+     * @return The solutions, each as n^2 cells in row-major order.
+     */
+    public Stream<int[]> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Runs the search up to the next solution, unless one is already waiting.
+     *
+     * @return {@code true} if there is another solution.
+     */
+    @Override
+    public boolean hasNext() {
+        if (ready)
+            return true;
+        if (done)
+            return false;
+        if (resume && !backtrack())
+            return false;
+        resume = false;
+
+        while (!engine.isComplete()) {
+            if (control.countNode()) {
+                done = true; // Stopped by the search budget
+                return false;
+            }
+            int c = engine.chooseColumn();
+            if (engine.size[c] == 0) {
+                if (!backtrack())
+                    return false;
+                continue;
+            }
+            engine.cover(c);
+            cols[engine.depth()] = c;
+            engine.select(engine.down[c]);
+        }
+        ready = true;
+        return true;
+    }
+
+    /**
+     * Returns the next solution.
+     *
+     * @return n^2 cells in row-major order.
+     * @throws NoSuchElementException if there are no more solutions.
+     */
+    @Override
+    public int[] next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        ready = false;
+        resume = true;
+
+        int[] cells = givens.clone();
+        engine.writeSolution(cells);
+        return cells;
+    }
+
+    /**
+     * Undoes the deepest row and selects its next sibling, climbing up while
+     * a level has no rows left.
+     *
+     * @return {@code false} if the whole tree has been searched.
+     */
+    private boolean backtrack() {
+        while (engine.depth() > 0) {
+            int r = engine.lastSelected();
+            engine.deselect(r);
+            int c = cols[engine.depth()];
+            int next = engine.down[r];
+            if (next != c) {
+                engine.select(next);
+                return true;
+            }
+            engine.uncover(c);
+        }
+        done = true;
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package performance;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sudoku.solver.SearchStats;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultSinkTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Every submitted row must be in both files after close, in order and
+     * below a single header, even when the queue is much smaller than the
+     * number of rows.
+     *
+     * @throws Exception if a file cannot be written or read.
+     */
+    @Test
+    void testCloseWritesEveryRow() throws Exception {
+        Path txt = dir.resolve("out.txt");
+        Path csv = dir.resolve("out.csv");
+        int rows = 5000;
+
+        try (ResultSink sink = new ResultSink(txt, csv, 16)) {
+            for (int i = 1; i <= rows; i++)
+                sink.submit(new ResultRow(i, "EASY", true, i, i, 2048, new SearchStats(), "Test", "now"));
+        }
+
+        List<String> csvLines = Files.readAllLines(csv);
+        assertEquals(rows + 1, csvLines.size());
+        assertEquals(WriteFile.csvHeader(), csvLines.get(0));
+        assertEquals("1,Test,EASY,Solved,1,2,1,0,0,0,0,0,0", csvLines.get(1));
+        assertTrue(csvLines.get(rows).startsWith(rows + ","));
+
+        List<String> txtLines = Files.readAllLines(txt);
+        assertEquals(rows + 2, txtLines.size());
+        assertTrue(txtLines.get(rows + 1).startsWith("| " + rows + " "));
+    }
+
+    /**
+     * A closed sink must refuse new rows, and closing it again is harmless.
+     *
+     * @throws Exception if a file cannot be written.
+     */
+    @Test
+    void testSubmitAfterClose() throws Exception {
+        ResultSink sink = new ResultSink(dir.resolve("a.txt"), dir.resolve("a.csv"), 4);
+        sink.close();
+        sink.close();
+        assertThrows(IllegalStateException.class,
+                () -> sink.submit(new ResultRow(1, "EASY", true, 0, 0, 0, new SearchStats(), "Test", "now")));
+    }
+}
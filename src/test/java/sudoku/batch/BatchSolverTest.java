@@ -0,0 +1,87 @@
+package sudoku.batch;
+
+import org.junit.jupiter.api.Test;
+import sudoku.model.Sudoku;
+import sudoku.solver.DancingLinksArray;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSolverTest {
+
+    /** Path to the file containing the test case */
+    private static final String TESTCASE_FILE = Paths.get(
+            System.getProperty("user.dir"),
+            "src", "main", "java", "performance", "sudokuIO", "input.txt").toString();
+
+    /**
+     * Solves the whole test file in parallel and checks that every result comes
+     * back solved, in input order.
+     *
+     * @throws Exception if there is an error reading the file.
+     */
+    @Test
+    void testResultsFollowInputOrder() throws Exception {
+        List<String> puzzles = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(TESTCASE_FILE))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(":");
+                if (parts.length == 2)
+                    puzzles.add(parts[1].trim());
+            }
+        }
+        puzzles.add("123"); // rejected by the validator
+
+        try (BatchSolver batch = new BatchSolver(DancingLinksArray::new, 4)) {
+            List<BatchResult> results = batch.solveAll(puzzles);
+
+            assertEquals(puzzles.size(), results.size());
+            for (int i = 0; i < results.size(); i++) {
+                BatchResult result = results.get(i);
+                assertEquals(i, result.getIndex());
+                assertEquals(puzzles.get(i), result.getPuzzle());
+            }
+            for (int i = 0; i < results.size() - 1; i++) {
+                assertEquals(BatchResult.Status.SOLVED, results.get(i).getStatus(), "puzzle " + i);
+                assertEquals(81, results.get(i).getSolution().length());
+            }
+            assertEquals(BatchResult.Status.INVALID, results.get(results.size() - 1).getStatus());
+        }
+    }
+
+    /**
+     * A 16x16 puzzle must be solved at its own size rather than read into a
+     * 9x9 grid.
+     *
+     * @throws Exception if the puzzle cannot be read.
+     */
+    @Test
+    void testSolvesLargeGrids() throws Exception {
+        Sudoku full = new Sudoku(16);
+        DancingLinksArray solver = new DancingLinksArray();
+        solver.setSudoku(full);
+        assertTrue(solver.solve());
+        int[][] grid = full.getGrid();
+        for (int r = 0; r < 16; r++)
+            for (int c = 0; c < 16; c++)
+                if ((r * 7 + c * 3) % 5 < 2)
+                    grid[r][c] = 0;
+        String puzzle = full.toInputString();
+
+        try (BatchSolver batch = new BatchSolver(DancingLinksArray::new, 2)) {
+            BatchResult result = batch.solveAll(List.of(puzzle)).get(0);
+
+            assertEquals(BatchResult.Status.SOLVED, result.getStatus());
+            assertEquals(256, result.getSolution().length());
+            Sudoku solved = new Sudoku(16);
+            solved.read(result.getSolution());
+            assertTrue(solved.isSolved());
+        }
+    }
+}
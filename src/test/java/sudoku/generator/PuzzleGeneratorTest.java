@@ -0,0 +1,91 @@
+package sudoku.generator;
+
+import org.junit.jupiter.api.Test;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.DancingLinksArray;
+import sudoku.solver.Propagator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleGeneratorTest {
+
+    private static int[][] grid(String puzzle) throws Exception {
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        sudoku.read(puzzle);
+        return sudoku.getGrid();
+    }
+
+    /**
+     * Generates puzzles of every level and checks that each has exactly one
+     * solution, the one reported, and needs the techniques of its level.
+     *
+     * @throws Exception if a generated puzzle cannot be read.
+     */
+    @Test
+    void testPuzzlesAreUniqueAndGraded() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        for (Difficulty difficulty : Difficulty.values()) {
+            PuzzleGenerator generator = new PuzzleGenerator(difficulty, 0);
+            for (int i = 0; i < 10; i++) {
+                GeneratedPuzzle puzzle = generator.generate(random);
+                String name = difficulty + " " + i;
+                assertEquals(difficulty, puzzle.getDifficulty(), name);
+
+                Sudoku sudoku = new Sudoku(SudokuConstant.N);
+                sudoku.read(puzzle.toInputString());
+                DancingLinksArray solver = new DancingLinksArray();
+                solver.setSudoku(sudoku);
+                assertEquals(1, solver.countSolutions(2), name);
+                assertEquals(puzzle.getSolutionString(), sudoku.toInputString(), name);
+
+                boolean singles = solvedBy(new Propagator(false), puzzle);
+                boolean logic = solvedBy(new Propagator(), puzzle);
+                assertEquals(difficulty == Difficulty.EASY, singles, name);
+                assertEquals(difficulty.compareTo(Difficulty.MEDIUM) <= 0, logic, name);
+            }
+        }
+    }
+
+    private static boolean solvedBy(Propagator propagator, GeneratedPuzzle puzzle) throws Exception {
+        propagator.propagate(grid(puzzle.toInputString()));
+        return propagator.isComplete();
+    }
+
+    /**
+     * Checks that removal stops at the requested clue count, and that a
+     * target that cannot be met is reported instead of looping forever.
+     */
+    @Test
+    void testClueCount() {
+        PuzzleGenerator generator = new PuzzleGenerator(Difficulty.EASY, 40);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 20; i++)
+            assertEquals(40, generator.generate(random).getClues());
+
+        PuzzleGenerator impossible = new PuzzleGenerator(Difficulty.EVIL, 60);
+        assertThrows(IllegalStateException.class, () -> impossible.generate(random));
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleGenerator(Difficulty.EASY, 82));
+    }
+
+    /**
+     * Checks that a seed gives the same corpus whatever the number of threads.
+     */
+    @Test
+    void testCorpusDependsOnlyOnSeed() {
+        List<GeneratedPuzzle> single, parallel;
+        try (CorpusGenerator generator = new CorpusGenerator(Difficulty.MEDIUM, 0, 7L, 1)) {
+            single = generator.generateAll(50);
+        }
+        try (CorpusGenerator generator = new CorpusGenerator(Difficulty.MEDIUM, 0, 7L, 3)) {
+            parallel = generator.generateAll(50);
+        }
+
+        assertEquals(50, parallel.size());
+        for (int i = 0; i < single.size(); i++)
+            assertEquals(single.get(i).toInputString(), parallel.get(i).toInputString(), "puzzle " + i);
+    }
+}
@@ -0,0 +1,97 @@
+package sudoku.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sudoku.batch.BatchResult;
+import sudoku.batch.BatchSolver;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.DancingLinksArray;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryCorpusTest {
+
+    private static final String[] LEVELS = { "EASY", "MEDIUM", "HARD", "EVIL" };
+    private static final String[] PUZZLES = {
+            SudokuConstant.EASY, SudokuConstant.MEDIUM, SudokuConstant.HARD, SudokuConstant.EVIL };
+
+    @TempDir
+    Path dir;
+
+    private Path writeText() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < PUZZLES.length; i++)
+            text.append(LEVELS[i]).append(':').append(PUZZLES[i]).append('\n');
+        Path file = dir.resolve("corpus.txt");
+        Files.writeString(file, text);
+        return file;
+    }
+
+    /**
+     * A converted corpus must give back every puzzle, level and solution, both
+     * sequentially and by index, at 42 bytes per puzzle.
+     *
+     * @throws Exception if a file cannot be written or read.
+     */
+    @Test
+    void testConvertAndReadBack() throws Exception {
+        Path bin = dir.resolve("corpus.bin");
+        assertEquals(PUZZLES.length, CorpusConverter.convert(writeText(), bin, true));
+        assertEquals(BinaryFormat.HEADER_SIZE + PUZZLES.length * (1 + 2 * BinaryFormat.PACKED_SIZE),
+                Files.size(bin));
+
+        try (PuzzleSource source = PuzzleSource.open(bin)) {
+            assertTrue(source instanceof BinaryCorpusReader);
+            for (int i = 0; i < PUZZLES.length; i++) {
+                assertTrue(source.next());
+                assertEquals(LEVELS[i], source.level());
+                assertEquals(PUZZLES[i], source.toInputString());
+            }
+            assertFalse(source.next());
+        }
+
+        try (BinaryCorpusReader reader = new BinaryCorpusReader(bin)) {
+            byte[] cells = new byte[PuzzleSource.CELLS];
+            reader.read(3, cells);
+            for (int i = 0; i < PuzzleSource.CELLS; i++)
+                assertEquals(PUZZLES[3].charAt(i) - '0', cells[i]);
+            assertEquals("EVIL", reader.level(3));
+
+            reader.readSolution(3, cells);
+            for (int i = 0; i < PuzzleSource.CELLS; i++) {
+                assertTrue(cells[i] >= 1 && cells[i] <= 9);
+                if (PUZZLES[3].charAt(i) != '0')
+                    assertEquals(PUZZLES[3].charAt(i) - '0', cells[i]);
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.read(4, new byte[PuzzleSource.CELLS]));
+        }
+    }
+
+    /**
+     * The batch solver must accept a binary corpus.
+     *
+     * @throws Exception if a file cannot be written or read.
+     */
+    @Test
+    void testBatchSolverReadsBinaryCorpus() throws Exception {
+        Path bin = dir.resolve("batch.bin");
+        CorpusConverter.convert(writeText(), bin, false);
+
+        List<BatchResult> results = new ArrayList<>();
+        try (PuzzleSource source = PuzzleSource.open(bin);
+                BatchSolver batch = new BatchSolver(DancingLinksArray::new, 2)) {
+            batch.solve(source, true, results::add);
+        }
+
+        assertEquals(PUZZLES.length, results.size());
+        for (int i = 0; i < PUZZLES.length; i++) {
+            assertEquals(PUZZLES[i], results.get(i).getPuzzle());
+            assertEquals(BatchResult.Status.SOLVED, results.get(i).getStatus());
+        }
+    }
+}
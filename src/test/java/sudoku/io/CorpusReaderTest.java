@@ -0,0 +1,87 @@
+package sudoku.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sudoku.model.SudokuConstant;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CorpusReaderTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * All three line formats must decode to the same puzzle, with blank lines
+     * and CRLF endings ignored.
+     *
+     * @throws Exception if the file cannot be written or read.
+     */
+    @Test
+    void testReadsEveryLineFormat() throws Exception {
+        String digits = SudokuConstant.EVIL;
+        String dots = digits.replace('0', '.');
+        Path file = dir.resolve("corpus.txt");
+        Files.writeString(file, "EVIL: " + digits + "\r\n\n" + digits + "\n" + dots);
+
+        try (CorpusReader reader = new CorpusReader(file)) {
+            assertTrue(reader.next());
+            assertEquals("EVIL", reader.level());
+            assertEquals(digits, reader.toInputString());
+
+            assertTrue(reader.next());
+            assertNull(reader.level());
+            assertEquals(digits, reader.toInputString());
+            assertEquals(3, reader.lineNumber());
+
+            assertTrue(reader.next());
+            assertEquals(digits, reader.toInputString());
+
+            assertFalse(reader.next());
+        }
+    }
+
+    /**
+     * Puzzles must be read correctly across window boundaries.
+     *
+     * @throws Exception if the file cannot be written or read.
+     */
+    @Test
+    void testRemapsAcrossWindows() throws Exception {
+        StringBuilder corpus = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+            corpus.append(i % 2 == 0 ? "EASY:" : "HARD:").append(SudokuConstant.EASY).append('\n');
+        Path file = dir.resolve("large.txt");
+        Files.writeString(file, corpus);
+
+        int count = 0;
+        try (CorpusReader reader = new CorpusReader(file, 1000)) {
+            while (reader.next()) {
+                assertEquals(count % 2 == 0 ? "EASY" : "HARD", reader.level());
+                assertEquals(SudokuConstant.EASY, reader.toInputString());
+                count++;
+            }
+        }
+        assertEquals(500, count);
+    }
+
+    /**
+     * A line of the wrong length must be rejected with its line number.
+     *
+     * @throws Exception if the file cannot be written.
+     */
+    @Test
+    void testRejectsMalformedLine() throws Exception {
+        Path file = dir.resolve("bad.txt");
+        Files.writeString(file, SudokuConstant.EASY + "\nHARD:123\n");
+
+        try (CorpusReader reader = new CorpusReader(file)) {
+            assertTrue(reader.next());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+        }
+    }
+}
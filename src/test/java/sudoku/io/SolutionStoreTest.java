@@ -0,0 +1,104 @@
+package sudoku.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.DancingLinksArray;
+import sudoku.solver.StoredSolver;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] cells(String puzzle) {
+        byte[] cells = new byte[PuzzleSource.CELLS];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = (byte) (puzzle.charAt(i) - '0');
+        return cells;
+    }
+
+    /**
+     * Entries must survive closing and reopening the file, and a small table
+     * must resolve collisions and refuse inserts beyond 3/4 full.
+     *
+     * @throws Exception if the store cannot be written or read.
+     */
+    @Test
+    void testEntriesPersistAndFillUp() throws Exception {
+        Path file = dir.resolve("solutions.db");
+        byte[] solution = new byte[PuzzleSource.CELLS];
+        byte[][] puzzles = new byte[7][];
+        for (int i = 0; i < puzzles.length; i++) {
+            puzzles[i] = cells(SudokuConstant.EVIL);
+            puzzles[i][0] = (byte) i; // distinct keys, contents do not matter here
+        }
+
+        try (SolutionStore store = new SolutionStore(file, 8)) {
+            assertEquals(8, store.slots());
+            for (int i = 0; i < 6; i++) {
+                solution[0] = (byte) (i + 1);
+                assertTrue(store.put(puzzles[i], solution));
+            }
+            assertTrue(store.put(puzzles[0], solution)); // already stored
+            assertFalse(store.put(puzzles[6], solution)); // over the load factor
+            assertEquals(6, store.size());
+        }
+
+        try (SolutionStore store = new SolutionStore(file, 1024)) {
+            assertEquals(8, store.slots()); // an existing store keeps its size
+            for (int i = 0; i < 6; i++) {
+                assertTrue(store.get(puzzles[i], solution));
+                assertEquals(i + 1, solution[0]);
+            }
+            assertFalse(store.get(puzzles[6], solution));
+        }
+    }
+
+    /**
+     * A stored solver must answer a puzzle solved by an earlier instance from
+     * the file.
+     *
+     * @throws Exception if the store or the puzzle cannot be read.
+     */
+    @Test
+    void testStoredSolverAnswersFromFile() throws Exception {
+        Path file = dir.resolve("solver.db");
+        for (int run = 0; run < 2; run++) {
+            try (SolutionStore store = new SolutionStore(file, 64)) {
+                StoredSolver solver = new StoredSolver(new DancingLinksArray(), store);
+                Sudoku sudoku = new Sudoku(SudokuConstant.N);
+                sudoku.read(SudokuConstant.EVIL);
+                solver.setSudoku(sudoku);
+
+                assertTrue(solver.solve());
+                assertEquals(run == 1, solver.wasHit());
+                assertTrue(sudoku.isSolved());
+            }
+        }
+    }
+
+    /**
+     * Counting more than one solution must neither read nor fill the store.
+     *
+     * @throws Exception if the store or the puzzle cannot be read.
+     */
+    @Test
+    void testCountBypassesStore() throws Exception {
+        try (SolutionStore store = new SolutionStore(dir.resolve("count.db"), 64)) {
+            StoredSolver solver = new StoredSolver(new DancingLinksArray(), store);
+            Sudoku sudoku = new Sudoku(SudokuConstant.N);
+            sudoku.read(SudokuConstant.EVIL);
+            solver.setSudoku(sudoku);
+
+            assertEquals(1, solver.countSolutions(2));
+            assertFalse(solver.wasHit());
+            assertEquals(0, store.size());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package sudoku.solver;
+
+import org.junit.jupiter.api.Test;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingSolverTest {
+
+    private static int[][] read(String puzzle) throws Exception {
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        sudoku.read(puzzle);
+        return sudoku.getGrid();
+    }
+
+    /**
+     * Applies a random isomorphism: relabelling, band, row, stack and column
+     * permutations, and possibly a transposition.
+     */
+    private static int[][] shuffle(int[][] grid, Random random) {
+        int[] digit = permutation(random, 9, 1);
+        int[] rows = lines(random);
+        int[] cols = lines(random);
+        boolean transpose = random.nextBoolean();
+
+        int[][] out = new int[9][9];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int v = transpose ? grid[cols[c]][rows[r]] : grid[rows[r]][cols[c]];
+                out[r][c] = v == 0 ? 0 : digit[v - 1];
+            }
+        }
+        return out;
+    }
+
+    private static int[] lines(Random random) {
+        int[] groups = permutation(random, 3, 0);
+        int[] order = new int[9];
+        for (int g = 0; g < 3; g++) {
+            int[] inner = permutation(random, 3, 0);
+            for (int k = 0; k < 3; k++)
+                order[g * 3 + k] = groups[g] * 3 + inner[k];
+        }
+        return order;
+    }
+
+    private static int[] permutation(Random random, int n, int base) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++)
+            p[i] = i + base;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1), t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        return p;
+    }
+
+    private static Solver prepare(Solver solver, int[][] grid) {
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        for (int r = 0; r < 9; r++)
+            sudoku.getGrid()[r] = grid[r].clone();
+        solver.setSudoku(sudoku);
+        return solver;
+    }
+
+    private static void assertSolves(int[][] puzzle, int[][] grid) {
+        CandidateState state = new CandidateState();
+        assertTrue(state.load(grid));
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                assertTrue(grid[r][c] >= 1 && grid[r][c] <= 9);
+                if (puzzle[r][c] != 0)
+                    assertEquals(puzzle[r][c], grid[r][c]);
+            }
+        }
+    }
+
+    /**
+     * Every isomorph of a solved puzzle must be a hit, and the mapped-back
+     * grid must solve the isomorph.
+     *
+     * @throws Exception if a puzzle cannot be read.
+     */
+    @Test
+    void testIsomorphsHitTheCache() throws Exception {
+        SolutionCache cache = new SolutionCache(16);
+        CachingSolver solver = new CachingSolver(new DancingLinksArray(), cache);
+        Random random = new Random(42);
+
+        for (String puzzle : new String[] { SudokuConstant.EASY, SudokuConstant.HARD, SudokuConstant.EVIL }) {
+            int[][] original = read(puzzle);
+            assertTrue(prepare(solver, original).solve());
+            assertFalse(solver.wasHit());
+
+            for (int i = 0; i < 20; i++) {
+                int[][] isomorph = shuffle(original, random);
+                assertTrue(prepare(solver, isomorph).solve());
+                assertTrue(solver.wasHit());
+                assertEquals(StopReason.SOLVED, solver.getStopReason());
+                assertSolves(isomorph, solver.getSudoku().getGrid());
+            }
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.getMisses());
+        assertEquals(60, cache.getHits());
+    }
+
+    /**
+     * The least recently used puzzle must be evicted once the cache is full.
+     *
+     * @throws Exception if a puzzle cannot be read.
+     */
+    @Test
+    void testLeastRecentlyUsedIsEvicted() throws Exception {
+        SolutionCache cache = new SolutionCache(2);
+        CachingSolver solver = new CachingSolver(new DancingLinksArray(), cache);
+        int[][] easy = read(SudokuConstant.EASY);
+        int[][] hard = read(SudokuConstant.HARD);
+        int[][] evil = read(SudokuConstant.EVIL);
+
+        prepare(solver, easy).solve();
+        prepare(solver, hard).solve();
+        prepare(solver, easy).solve(); // hard is now the least recently used
+        prepare(solver, evil).solve();
+        assertEquals(1, cache.getEvictions());
+
+        prepare(solver, easy).solve();
+        assertTrue(solver.wasHit());
+        prepare(solver, hard).solve();
+        assertFalse(solver.wasHit());
+        assertEquals(2, cache.size());
+    }
+}
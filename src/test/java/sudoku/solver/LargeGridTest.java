@@ -0,0 +1,101 @@
+package sudoku.solver;
+
+import org.junit.jupiter.api.Test;
+import sudoku.common.InputValidator;
+import sudoku.model.Sudoku;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LargeGridTest {
+
+    /**
+     * Returns a puzzle of the given size: a solution of the empty grid with
+     * about 40% of its cells blanked in a fixed pattern.
+     */
+    private static int[][] puzzle(int size) {
+        Sudoku full = new Sudoku(size);
+        DancingLinksArray solver = new DancingLinksArray();
+        solver.setSudoku(full);
+        assertTrue(solver.solve());
+        assertSolved(full, "empty grid");
+
+        int[][] grid = full.getGrid();
+        for (int r = 0; r < size; r++)
+            for (int c = 0; c < size; c++)
+                if ((r * 7 + c * 3) % 5 < 2)
+                    grid[r][c] = 0;
+        return grid;
+    }
+
+    private static void assertSolved(Sudoku sudoku, String name) {
+        for (int[] row : sudoku.getGrid())
+            for (int v : row)
+                assertNotEquals(0, v, name);
+        assertTrue(sudoku.isSolved(), name);
+    }
+
+    /**
+     * The Dancing Links and bitmask solvers must solve 16x16 and 25x25
+     * puzzles, keeping the givens, with and without propagation.
+     *
+     * @throws Exception if a puzzle cannot be read.
+     */
+    @Test
+    void testSolversHandleLargeGrids() throws Exception {
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            for (int size : new int[] { 4, 16, 25 }) {
+                int[][] puzzle = puzzle(size);
+                List<Solver> solvers = List.of(new DancingLinksX(), new DancingLinksArray(),
+                        parallel, new ForwardChecking(), new MRVBacktracking());
+                for (Solver solver : solvers) {
+                    for (boolean propagate : new boolean[] { false, true }) {
+                        String name = solver.getName() + " " + size + "x" + size + (propagate ? " propagated" : "");
+                        Sudoku sudoku = new Sudoku(size);
+                        for (int r = 0; r < size; r++)
+                            sudoku.getGrid()[r] = puzzle[r].clone();
+                        solver.setPropagationEnabled(propagate);
+                        solver.setSudoku(sudoku);
+
+                        assertTrue(solver.solve(), name);
+                        assertSolved(sudoku, name);
+                        for (int r = 0; r < size; r++)
+                            for (int c = 0; c < size; c++)
+                                if (puzzle[r][c] != 0)
+                                    assertEquals(puzzle[r][c], sudoku.getGrid()[r][c], name);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Values above 9 must be written as letters and read back, and inputs
+     * must be validated against the size their length implies.
+     *
+     * @throws Exception if a puzzle cannot be read.
+     */
+    @Test
+    void testAlphanumericEncoding() throws Exception {
+        int[][] puzzle = puzzle(16);
+        Sudoku sudoku = new Sudoku(16);
+        for (int r = 0; r < 16; r++)
+            sudoku.getGrid()[r] = puzzle[r].clone();
+        String text = sudoku.toInputString();
+        assertEquals(256, text.length());
+        assertTrue(text.chars().anyMatch(Character::isLetter));
+        assertEquals(16, InputValidator.validateInput(text));
+
+        Sudoku copy = new Sudoku(16);
+        copy.read(text.toLowerCase().replace('0', '.'));
+        assertArrayEquals(puzzle, copy.getGrid());
+
+        assertEquals(9, InputValidator.validateInput("0".repeat(81)));
+        assertEquals(25, InputValidator.validateInput("P" + "0".repeat(624)));
+        assertThrows(IllegalArgumentException.class, () -> InputValidator.validateInput("H" + "0".repeat(255)));
+        assertThrows(IllegalArgumentException.class, () -> InputValidator.validateInput("A" + "0".repeat(80)));
+        assertThrows(IllegalArgumentException.class, () -> InputValidator.validateInput("0".repeat(100)));
+        assertThrows(IllegalArgumentException.class, () -> new Sudoku(10));
+    }
+}
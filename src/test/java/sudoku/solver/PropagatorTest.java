@@ -0,0 +1,125 @@
+package sudoku.solver;
+
+import org.junit.jupiter.api.Test;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropagatorTest {
+
+    private static Sudoku read(String puzzle) throws Exception {
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        sudoku.read(puzzle);
+        return sudoku;
+    }
+
+    private static int[][] solution(String puzzle) throws Exception {
+        Sudoku sudoku = read(puzzle);
+        DancingLinksArray solver = new DancingLinksArray();
+        solver.setSudoku(sudoku);
+        assertTrue(solver.solve());
+        return sudoku.getGrid();
+    }
+
+    /**
+     * The sample puzzles with a unique solution must be solved by propagation
+     * alone, with the same values as a search.
+     *
+     * @throws Exception if a puzzle cannot be read.
+     */
+    @Test
+    void testSolvesEasyPuzzlesWithoutSearch() throws Exception {
+        for (String puzzle : List.of(SudokuConstant.MEDIUM, SudokuConstant.HARD, SudokuConstant.EVIL)) {
+            Sudoku sudoku = read(puzzle);
+            int[][] grid = sudoku.getGrid();
+            int empty = 0;
+            for (int[] row : grid)
+                for (int v : row)
+                    if (v == 0)
+                        empty++;
+
+            Propagator propagator = new Propagator();
+            assertEquals(empty, propagator.propagate(grid));
+            assertTrue(propagator.isComplete());
+            assertArrayEquals(solution(puzzle), grid);
+
+            Solver solver = new BasicBacktracking();
+            solver.setPropagationEnabled(true);
+            solver.setSudoku(read(puzzle));
+            assertTrue(solver.solve());
+            assertEquals(empty, solver.getPropagatedCells());
+            assertEquals(0, solver.getStats().getNodes());
+        }
+    }
+
+    /**
+     * With propagation enabled, every solver must find the same solution and
+     * count the same solutions as without it.
+     *
+     * @throws Exception if a puzzle cannot be read.
+     */
+    @Test
+    void testSolversAgreeWithPropagation() throws Exception {
+        int[][] expected = solution(SudokuConstant.EVIL);
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            List<Solver> solvers = List.of(new DancingLinksX(), new DancingLinksArray(),
+                    parallel, new BasicBacktracking(), new ForwardChecking(),
+                    new MRVBacktracking());
+            for (Solver solver : solvers) {
+                solver.setPropagationEnabled(true);
+
+                Sudoku evil = read(SudokuConstant.EVIL);
+                solver.setSudoku(evil);
+                assertEquals(1, solver.countSolutions(2), solver.getName());
+                assertArrayEquals(expected, evil.getGrid(), solver.getName());
+
+                // This sample has several solutions, so propagation stops early
+                Sudoku several = read(SudokuConstant.EASY);
+                solver.setSudoku(several);
+                assertEquals(3, solver.countSolutions(3), solver.getName());
+                assertTrue(solver.getPropagatedCells() > 0, solver.getName());
+                assertTrue(several.isSolved(), solver.getName());
+
+                Sudoku empty = new Sudoku(SudokuConstant.N);
+                solver.setSudoku(empty);
+                assertEquals(2, solver.countSolutions(2), solver.getName());
+                assertEquals(0, solver.getPropagatedCells(), solver.getName());
+                assertTrue(empty.isSolved(), solver.getName());
+            }
+        }
+    }
+
+    /**
+     * A cell left without candidates must be reported as a contradiction, and
+     * a solver must then give up without searching and keep the givens.
+     */
+    @Test
+    void testContradictionIsNotSearched() {
+        int[][] grid = new int[9][9];
+        for (int c = 1; c < 9; c++)
+            grid[0][c] = c;
+        grid[1][0] = 9; // (0, 0) can hold nothing
+        assertEquals(Propagator.CONTRADICTION, new Propagator().propagate(copy(grid)));
+
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        for (int r = 0; r < 9; r++)
+            sudoku.getGrid()[r] = grid[r].clone();
+        Solver solver = new ForwardChecking();
+        solver.setPropagationEnabled(true);
+        solver.setSudoku(sudoku);
+        assertFalse(solver.solve());
+        assertEquals(StopReason.EXHAUSTED, solver.getStopReason());
+        assertEquals(0, solver.getStats().getNodes());
+        assertArrayEquals(grid, sudoku.getGrid());
+    }
+
+    private static int[][] copy(int[][] grid) {
+        int[][] copy = new int[grid.length][];
+        for (int r = 0; r < grid.length; r++)
+            copy[r] = grid[r].clone();
+        return copy;
+    }
+}
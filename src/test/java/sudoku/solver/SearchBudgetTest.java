@@ -0,0 +1,168 @@
+package sudoku.solver;
+
+import org.junit.jupiter.api.Test;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchBudgetTest {
+
+    /** A puzzle that takes plain backtracking a very long time. */
+    private static final String SLOW_PUZZLE =
+            "000000000000003085001020000000507000004000100090000000500000073002010000000040009";
+
+    private static Solver prepare(Solver solver, String puzzle) throws Exception {
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        sudoku.read(puzzle);
+        solver.setSudoku(sudoku);
+        return solver;
+    }
+
+    /**
+     * Every solver must stop once the node limit is reached and report why.
+     *
+     * @throws Exception if the puzzle cannot be read.
+     */
+    @Test
+    void testNodeLimitStopsEverySolver() throws Exception {
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            List<Solver> solvers = List.of(
+                    new DancingLinksX(),
+                    new DancingLinksArray(),
+                    parallel,
+                    new BasicBacktracking(),
+                    new ForwardChecking(),
+                    new MRVBacktracking());
+
+            for (Solver solver : solvers) {
+                // 64 empty cells need far more than 5 search nodes
+                prepare(solver, SLOW_PUZZLE).setBudget(SearchBudget.nodes(5));
+                assertFalse(solver.solve(), solver.getName());
+                assertEquals(StopReason.NODE_LIMIT, solver.getStopReason(), solver.getName());
+
+                prepare(solver, SudokuConstant.EVIL).setBudget(SearchBudget.UNLIMITED);
+                assertTrue(solver.solve(), solver.getName());
+                assertEquals(StopReason.SOLVED, solver.getStopReason(), solver.getName());
+            }
+        }
+    }
+
+    /**
+     * A deadline must stop a long backtracking search promptly.
+     *
+     * @throws Exception if the puzzle cannot be read.
+     */
+    @Test
+    void testDeadlineStopsBacktracking() throws Exception {
+        Solver solver = prepare(new BasicBacktracking(), SLOW_PUZZLE);
+        solver.setBudget(SearchBudget.timeout(50, TimeUnit.MILLISECONDS));
+
+        long start = System.nanoTime();
+        assertFalse(solver.solve());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(StopReason.DEADLINE, solver.getStopReason());
+        assertTrue(elapsedMillis < 1000, "stopped after " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Cancelling the token from another thread must stop the solver.
+     *
+     * @throws Exception if the puzzle cannot be read or the thread is interrupted.
+     */
+    @Test
+    void testTokenCancelsFromAnotherThread() throws Exception {
+        CancellationToken token = new CancellationToken();
+        Solver solver = prepare(new BasicBacktracking(), SLOW_PUZZLE);
+        solver.setBudget(SearchBudget.token(token));
+
+        Thread thread = new Thread(solver::solve);
+        thread.start();
+        Thread.sleep(50);
+        token.cancel();
+        thread.join(1000);
+
+        assertFalse(thread.isAlive());
+        assertEquals(StopReason.CANCELLED, solver.getStopReason());
+    }
+
+    /**
+     * Statistics must reach the full search depth when enabled, while the node
+     * count is reported even when they are disabled.
+     *
+     * @throws Exception if the puzzle cannot be read.
+     */
+    @Test
+    void testStatsCollectedByEverySolver() throws Exception {
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            List<Solver> solvers = List.of(
+                    new DancingLinksX(),
+                    new DancingLinksArray(),
+                    parallel,
+                    new BasicBacktracking(),
+                    new ForwardChecking(),
+                    new MRVBacktracking());
+            int empty = (int) SudokuConstant.EVIL.chars().filter(ch -> ch == '0').count();
+
+            for (Solver solver : solvers) {
+                prepare(solver, SudokuConstant.EVIL).setStatsEnabled(true);
+                assertTrue(solver.solve(), solver.getName());
+                SearchStats stats = solver.getStats();
+                assertTrue(stats.getNodes() > 0, solver.getName());
+                assertTrue(stats.getMaxDepth() >= empty, solver.getName());
+                assertTrue(stats.getCovers() + stats.getCandidateChecks() > 0, solver.getName());
+
+                prepare(solver, SudokuConstant.EVIL).setStatsEnabled(false);
+                assertTrue(solver.solve(), solver.getName());
+                assertTrue(solver.getStats().getNodes() > 0, solver.getName());
+                assertEquals(0, solver.getStats().getMaxDepth(), solver.getName());
+            }
+        }
+    }
+
+    /**
+     * A node limit must bound a parallel search as a whole, not each of its
+     * subtrees.
+     *
+     * @throws Exception if the puzzle cannot be read.
+     */
+    @Test
+    void testNodeLimitIsSharedByParallelSubtrees() throws Exception {
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            Solver solver = prepare(parallel, "0".repeat(81));
+            solver.setBudget(SearchBudget.nodes(20_000));
+
+            solver.countSolutions(Integer.MAX_VALUE);
+            assertEquals(StopReason.NODE_LIMIT, solver.getStopReason());
+            // Each worker may run past the limit until its next batch of 1024 nodes
+            assertTrue(solver.getStats().getNodes() <= 20_000 + 4 * 1024,
+                    "searched " + solver.getStats().getNodes() + " nodes");
+        }
+    }
+
+    /**
+     * Interrupting the caller must stop a parallel search, whose nodes run on
+     * pool workers that never see the interrupt themselves.
+     *
+     * @throws Exception if the puzzle cannot be read or the thread is interrupted.
+     */
+    @Test
+    void testInterruptStopsParallelSearch() throws Exception {
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            Solver solver = prepare(parallel, "0".repeat(81));
+
+            Thread thread = new Thread(() -> solver.countSolutions(Integer.MAX_VALUE));
+            thread.start();
+            Thread.sleep(50);
+            thread.interrupt();
+            thread.join(2000);
+
+            assertFalse(thread.isAlive());
+            assertEquals(StopReason.INTERRUPTED, solver.getStopReason());
+        }
+    }
+}
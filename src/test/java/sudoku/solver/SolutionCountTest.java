@@ -0,0 +1,127 @@
+package sudoku.solver;
+
+import org.junit.jupiter.api.Test;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionCountTest {
+
+    private static List<Solver> solvers(ParallelDancingLinks parallel) {
+        return List.of(
+                new DancingLinksX(),
+                new DancingLinksArray(),
+                parallel,
+                new BasicBacktracking(),
+                new ForwardChecking(),
+                new MRVBacktracking());
+    }
+
+    private static Sudoku sudoku(int[][] grid) {
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        for (int r = 0; r < 9; r++)
+            sudoku.getGrid()[r] = grid[r].clone();
+        return sudoku;
+    }
+
+    private static void assertSolved(Sudoku sudoku, String name) {
+        for (int[] row : sudoku.getGrid()) {
+            for (int v : row)
+                assertNotEquals(0, v, name);
+        }
+        assertTrue(sudoku.isSolved(), name);
+    }
+
+    /**
+     * Returns the solution of EVIL with one deadly rectangle removed: four
+     * cells in two rows, two columns and two boxes holding a, b / b, a. The
+     * result has exactly two solutions, which differ by swapping a and b.
+     */
+    private static int[][] twoSolutions() throws Exception {
+        Sudoku solved = new Sudoku(SudokuConstant.N);
+        solved.read(SudokuConstant.EVIL);
+        DancingLinksArray solver = new DancingLinksArray();
+        solver.setSudoku(solved);
+        assertTrue(solver.solve());
+        int[][] g = solved.getGrid();
+
+        for (int r1 = 0; r1 < 9; r1++) {
+            for (int r2 = r1 + 1; r2 < r1 / 3 * 3 + 3; r2++) {
+                for (int c1 = 0; c1 < 9; c1++) {
+                    for (int c2 = c1 + 1; c2 < 9; c2++) {
+                        if (c1 / 3 != c2 / 3 && g[r1][c1] == g[r2][c2] && g[r1][c2] == g[r2][c1]) {
+                            g[r1][c1] = g[r1][c2] = g[r2][c1] = g[r2][c2] = 0;
+                            return g;
+                        }
+                    }
+                }
+            }
+        }
+        fail("No deadly rectangle in the solution");
+        return null;
+    }
+
+    /**
+     * Every solver must count one solution for a proper puzzle, two for a
+     * puzzle with two, and stop at the limit on an empty grid, leaving the
+     * first solution in the grid.
+     *
+     * @throws Exception if a puzzle cannot be read.
+     */
+    @Test
+    void testEverySolverCountsSolutions() throws Exception {
+        Sudoku evil = new Sudoku(SudokuConstant.N);
+        evil.read(SudokuConstant.EVIL);
+        int[][] unique = evil.getGrid();
+        int[][] pair = twoSolutions();
+        int[][] empty = new int[9][9];
+
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            for (Solver solver : solvers(parallel)) {
+                String name = solver.getName();
+
+                Sudoku sudoku = sudoku(unique);
+                solver.setSudoku(sudoku);
+                assertEquals(1, solver.countSolutions(2), name);
+                assertEquals(StopReason.SOLVED, solver.getStopReason(), name);
+                assertSolved(sudoku, name);
+
+                sudoku = sudoku(pair);
+                solver.setSudoku(sudoku);
+                assertEquals(2, solver.countSolutions(5), name);
+                assertEquals(StopReason.SOLVED, solver.getStopReason(), name);
+                assertSolved(sudoku, name);
+
+                sudoku = sudoku(empty);
+                solver.setSudoku(sudoku);
+                assertEquals(3, solver.countSolutions(3), name);
+                assertSolved(sudoku, name);
+
+                // A plain solve after a count still stops at the first solution
+                sudoku = sudoku(pair);
+                solver.setSudoku(sudoku);
+                assertTrue(solver.solve(), name);
+                assertSolved(sudoku, name);
+            }
+        }
+    }
+
+    /**
+     * A count cut short by the budget must report the budget, not
+     * {@link StopReason#SOLVED}.
+     *
+     * @throws Exception if the puzzle cannot be read.
+     */
+    @Test
+    void testBudgetStopsCount() throws Exception {
+        Solver solver = new BasicBacktracking();
+        solver.setSudoku(sudoku(new int[9][9]));
+        solver.setBudget(SearchBudget.nodes(100_000));
+        int found = solver.countSolutions(1_000_000);
+        assertTrue(found >= 1 && found < 1_000_000);
+        assertEquals(StopReason.NODE_LIMIT, solver.getStopReason());
+    }
+}
@@ -1,11 +1,9 @@
 package sudoku.solver;
 
 import org.junit.jupiter.api.Test;
-import sudoku.common.InputValidator;
+import sudoku.io.CorpusReader;
 import sudoku.model.*;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,54 +27,41 @@ public class SudokuTest {
     void testAllSolversFromFile() throws Exception {
         List<String> errors = new ArrayList<>();
 
-        List<Solver> solvers = List.of(
-                new DancingLinksX(),
-                new BasicBacktracking(),
-                new ForwardChecking(),
-                new MRVBacktracking());
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(TESTCASE_FILE))) {
-            String line;
-            int testId = 1;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty())
-                    continue;
-
-                String[] parts = line.split(":");
-                if (parts.length != 2) {
-                    errors.add("Test case line format error at line " + testId + ": " + line);
-                    continue;
-                }
-
-                String level = parts[0].trim();
-                String puzzle = parts[1].trim();
-
-                try {
-                    InputValidator.validateInput(puzzle);
-                } catch (IllegalArgumentException e) {
-                    errors.add("Invalid input at test " + testId + " (" + level + "): " + e.getMessage());
-                    continue;
-                }
-
-                for (Solver solver : solvers) {
-                    Sudoku sudoku = new Sudoku(N);
-                    sudoku.read(puzzle);
-                    solver.setSudoku(sudoku);
-
-                    boolean solved = solver.solve();
-                    if (!solved || !sudoku.isSolved()) {
-                        errors.add("❌ Solver " + solver.getName() + " failed on test " + testId + " (" + level + ")");
+        try (ParallelDancingLinks parallel = new ParallelDancingLinks(2)) {
+            List<Solver> solvers = List.of(
+                    new DancingLinksX(),
+                    new DancingLinksArray(),
+                    parallel,
+                    new BasicBacktracking(),
+                    new ForwardChecking(),
+                    new MRVBacktracking());
+
+            // The reader rejects malformed lines with an IllegalArgumentException
+            try (CorpusReader reader = new CorpusReader(Paths.get(TESTCASE_FILE))) {
+                int testId = 1;
+
+                while (reader.next()) {
+                    String level = reader.level();
+
+                    for (Solver solver : solvers) {
+                        Sudoku sudoku = new Sudoku(N);
+                        reader.copyTo(sudoku.getGrid());
+                        solver.setSudoku(sudoku);
+
+                        boolean solved = solver.solve();
+                        if (!solved || !sudoku.isSolved()) {
+                            errors.add("❌ Solver " + solver.getName() + " failed on test " + testId + " (" + level + ")");
+                        }
                     }
-                }
 
-                testId++;
+                    testId++;
+                }
             }
-        }
 
-        if (!errors.isEmpty()) {
-            errors.forEach(System.err::println);
-            fail("Some test cases failed. See error log above.");
+            if (!errors.isEmpty()) {
+                errors.forEach(System.err::println);
+                fail("Some test cases failed. See error log above.");
+            }
         }
     }
 }
@@ -0,0 +1,90 @@
+package sudoku.solver.dancinglinks;
+
+import org.junit.jupiter.api.Test;
+import sudoku.model.Sudoku;
+import sudoku.model.SudokuConstant;
+import sudoku.solver.DancingLinksArray;
+import sudoku.solver.Solver;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionIteratorTest {
+
+    private static void assertSolves(int[][] puzzle, int[] cells) {
+        Sudoku sudoku = new Sudoku(SudokuConstant.N);
+        for (int i = 0; i < cells.length; i++) {
+            assertTrue(cells[i] >= 1 && cells[i] <= 9);
+            if (puzzle[i / 9][i % 9] != 0)
+                assertEquals(puzzle[i / 9][i % 9], cells[i]);
+            sudoku.getGrid()[i / 9][i % 9] = cells[i];
+        }
+        assertTrue(sudoku.isSolved());
+    }
+
+    /**
+     * A unique puzzle must yield its one solution, and a puzzle with one
+     * given removed, which has a few hundred solutions, must yield as many distinct solutions as a full count.
+     *
+     * @throws Exception if the puzzle cannot be read.
+     */
+    @Test
+    void testEnumeratesEverySolutionOnce() throws Exception {
+        Sudoku evil = new Sudoku(SudokuConstant.N);
+        evil.read(SudokuConstant.EVIL);
+        int[][] grid = evil.getGrid();
+
+        Iterator<int[]> it = new SolutionIterator(grid);
+        assertTrue(it.hasNext());
+        assertSolves(grid, it.next());
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+
+        int given = 0;
+        while (grid[given / 9][given % 9] == 0)
+            given++;
+        grid[given / 9][given % 9] = 0;
+
+        List<int[]> all = SolutionIterator.stream(grid).collect(Collectors.toList());
+        Set<String> distinct = new HashSet<>();
+        for (int[] cells : all) {
+            assertSolves(grid, cells);
+            distinct.add(java.util.Arrays.toString(cells));
+        }
+        assertEquals(all.size(), distinct.size());
+
+        Solver counter = new DancingLinksArray();
+        Sudoku copy = new Sudoku(SudokuConstant.N);
+        for (int r = 0; r < 9; r++)
+            copy.getGrid()[r] = grid[r].clone();
+        counter.setSudoku(copy);
+        assertEquals(counter.countSolutions(Integer.MAX_VALUE), all.size());
+        assertTrue(all.size() > 1);
+    }
+
+    /**
+     * Taking the first few solutions of an empty grid must return promptly and
+     * leave the puzzle untouched.
+     */
+    @Test
+    void testTakesOnlyWhatIsConsumed() {
+        Sudoku empty = new Sudoku(SudokuConstant.N);
+        DancingLinksArray solver = new DancingLinksArray();
+        solver.setSudoku(empty);
+
+        List<int[]> first = solver.solutions().limit(1000).collect(Collectors.toList());
+        assertEquals(1000, first.size());
+        assertEquals(1000, first.stream().map(java.util.Arrays::toString).distinct().count());
+        for (int[] cells : first)
+            assertSolves(empty.getGrid(), cells);
+        for (int[] row : empty.getGrid())
+            for (int v : row)
+                assertEquals(0, v);
+    }
+}